@@ -66,9 +66,9 @@ public class DifficultyChoiceController {
         try {
             ProgressionMode mode = new ProgressionMode(player);
             mode.selectLevelAndChallenge(stepSelected, difficulty);
-            mode.prepareMaze();
 
-            Game game = new Game(mode);
+            // Le labyrinthe vient d'être préparé par la sélection : la partie ne doit pas en générer un autre
+            Game game = Game.onPreparedMaze(mode);
 
             ViewsUtils.saveStageSize(stage);
             new GameView(stage, game);
@@ -30,6 +30,7 @@ public class EndGameLoseController {
     public void onReturnToMenu() {
         ViewsUtils.saveStageSize(stage);
         if (view.getGame().getMode() instanceof ProgressionMode) {
+            ((ProgressionMode) view.getGame().getMode()).cancelPrefetch();
             Profil player = ((ProgressionMode) view.getGame().getMode()).getPlayer();
             new LevelChoiceView(stage, player);
             ViewsUtils.restoreStageSize(stage);
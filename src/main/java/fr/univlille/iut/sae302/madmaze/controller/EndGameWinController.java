@@ -1,9 +1,11 @@
 package main.java.fr.univlille.iut.sae302.madmaze.controller;
 
 import javafx.stage.Stage;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Game;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Profil;
 import main.java.fr.univlille.iut.sae302.madmaze.model.ProgressionMode;
 import main.java.fr.univlille.iut.sae302.madmaze.view.EndGameWinView;
+import main.java.fr.univlille.iut.sae302.madmaze.view.GameView;
 import main.java.fr.univlille.iut.sae302.madmaze.view.LevelChoiceView;
 import main.java.fr.univlille.iut.sae302.madmaze.view.MainMenuView;
 import main.java.fr.univlille.iut.sae302.madmaze.view.ViewsUtils;
@@ -24,12 +26,44 @@ public class EndGameWinController {
 
     public void setupListeners() {
         view.getMenuBtn().setOnAction(event -> onReturnToMenu());
+        if (view.getNextBtn() != null) {
+            view.getNextBtn().setOnAction(event -> onNextChallenge());
+        }
+        if (view.getRetryBtn() != null) {
+            view.getRetryBtn().setOnAction(event -> onRetry());
+        }
+    }
+
+    /**
+     * Enchaîne sur le défi suivant avec le même mode progression, qui reprend le labyrinthe pré-généré.
+     */
+    public void onNextChallenge() {
+        ProgressionMode mode = (ProgressionMode) view.getGame().getMode();
+        if (mode.selectNextChallenge()) {
+            startGame(mode);
+        }
+    }
+
+    /**
+     * Rejoue le défi courant sur un nouveau labyrinthe, pré-généré pendant la partie.
+     */
+    public void onRetry() {
+        ProgressionMode mode = (ProgressionMode) view.getGame().getMode();
+        mode.retryChallenge();
+        startGame(mode);
+    }
+
+    private void startGame(ProgressionMode mode) {
+        ViewsUtils.saveStageSize(stage);
+        new GameView(stage, Game.onPreparedMaze(mode));
+        ViewsUtils.restoreStageSize(stage);
     }
 
 
     public void onReturnToMenu() {
         ViewsUtils.saveStageSize(stage);
         if (view.getGame().getMode() instanceof ProgressionMode) {
+            ((ProgressionMode) view.getGame().getMode()).cancelPrefetch();
             Profil player = ((ProgressionMode) view.getGame().getMode()).getPlayer();
             new LevelChoiceView(stage, player);
             ViewsUtils.restoreStageSize(stage);
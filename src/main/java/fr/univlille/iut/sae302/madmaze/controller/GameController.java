@@ -93,6 +93,7 @@ public class GameController {
     public void onAbandon(Stage stage) {
         ViewsUtils.saveStageSize(stage);   
         if (model.getMode() instanceof ProgressionMode) {
+            ((ProgressionMode) model.getMode()).cancelPrefetch();
             new LevelChoiceView(stage, ((ProgressionMode) model.getMode()).getPlayer());
         } else {
             new MainMenuView().start(stage);
@@ -0,0 +1,39 @@
+package main.java.fr.univlille.iut.sae302.madmaze.controller;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.util.Duration;
+import main.java.fr.univlille.iut.sae302.madmaze.view.GenerationProgressView;
+
+/**
+ * Contrôleur de la fenêtre de progression : rafraîchit l'affichage tant que la génération tourne,
+ * l'annule sur demande (bouton ou fermeture de la fenêtre) et ferme la fenêtre à la fin.
+ */
+public class GenerationProgressController {
+    private final GenerationProgressView view;
+    private final Timeline refresh;
+
+    public GenerationProgressController(GenerationProgressView view) {
+        this.view = view;
+        this.refresh = new Timeline(new KeyFrame(Duration.millis(100), e -> view.refresh()));
+        this.refresh.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    public void setupListeners() {
+        view.getCancelButton().setOnAction(e -> onCancel());
+        view.getWindow().setOnCloseRequest(e -> onCancel());
+        view.getTask().getFuture().whenComplete((result, error) -> Platform.runLater(this::onDone));
+        refresh.play();
+    }
+
+    public void onCancel() {
+        System.out.println("[GenerationProgressController] Cancel requested");
+        view.getTask().cancel();
+    }
+
+    private void onDone() {
+        refresh.stop();
+        view.close();
+    }
+}
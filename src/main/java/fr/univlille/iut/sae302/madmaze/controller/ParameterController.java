@@ -1,13 +1,16 @@
 package main.java.fr.univlille.iut.sae302.madmaze.controller;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.scene.control.SpinnerValueFactory;
 import javafx.stage.Stage;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Game;
+import main.java.fr.univlille.iut.sae302.madmaze.model.GenerationTask;
 import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Mode;
 import main.java.fr.univlille.iut.sae302.madmaze.view.ParameterView;
 import main.java.fr.univlille.iut.sae302.madmaze.view.GameView;
+import main.java.fr.univlille.iut.sae302.madmaze.view.GenerationProgressView;
 import main.java.fr.univlille.iut.sae302.madmaze.view.MainMenuView;
 import main.java.fr.univlille.iut.sae302.madmaze.view.ViewsUtils;
 
@@ -110,11 +113,18 @@ public class ParameterController {
         Mode mode = view.getMode();
         mode.setMaze(mazeType, width, height, value);
 
-        Game game = new Game(mode);
-
-        ViewsUtils.saveStageSize(stage);
-        new GameView(stage, game);
-        ViewsUtils.restoreStageSize(stage);
+        // La partie (et donc le labyrinthe) est construite en fond : la fenêtre de progression permet d'annuler
+        GenerationTask<Game> task = GenerationTask.submit(() -> new Game(mode));
+        new GenerationProgressView(stage, task);
+        task.getFuture().whenComplete((game, error) -> Platform.runLater(() -> {
+            if (game != null) {
+                ViewsUtils.saveStageSize(stage);
+                new GameView(stage, game);
+                ViewsUtils.restoreStageSize(stage);
+            } else if (!task.isCancelled()) {
+                System.err.println("Erreur lors de la génération du labyrinthe : " + error.getMessage());
+            }
+        }));
     }
 
     /*private void onPerfectSelected() {
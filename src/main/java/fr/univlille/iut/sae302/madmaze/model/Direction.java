@@ -29,6 +29,8 @@ public enum Direction {
      */
     D("right", 1, 0);
 
+    private static final Direction[] VALUES = values();
+
     private final String direction;
     private final int dx;
     private final int dy;
@@ -73,6 +75,36 @@ public enum Direction {
         return this.dy;
     }
 
+    /**
+     * Retourne le bit associé à cette direction dans un masque de directions
+     * (voir {@link Maze#openDirections(int, int)}).
+     * 
+     * @return {@code 1 << ordinal()}
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Retourne la direction d'un bit de masque, sans copier le tableau des valeurs : pour parcourir un masque
+     * de {@link Maze#openDirections(int, int)} bit par bit ({@code Integer.numberOfTrailingZeros}).
+     * 
+     * @param bit l'indice du bit, de 0 à 3
+     * @return la direction dont {@link #mask()} vaut {@code 1 << bit}
+     */
+    public static Direction fromMaskBit(int bit) {
+        return VALUES[bit];
+    }
+
+    /**
+     * Retourne la direction opposée (Z et S, Q et D).
+     * 
+     * @return la direction opposée à celle-ci
+     */
+    public Direction opposite() {
+        return VALUES[(ordinal() + 2) & 3];
+    }
+
     /**
      * Calcule la nouvelle position d'une cellule après un déplacement dans cette direction.
      * 
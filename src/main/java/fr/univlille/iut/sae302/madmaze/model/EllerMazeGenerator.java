@@ -0,0 +1,131 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Générateur de labyrinthe parfait en flux, ligne par ligne, selon l'algorithme d'Eller.
+ * Seules les étiquettes d'ensemble de la ligne courante sont conservées : la mémoire utilisée
+ * est proportionnelle à la largeur et ne dépend pas de la hauteur, qui peut être illimitée
+ * ({@link Long#MAX_VALUE}). Chaque appel à {@link #next()} renvoie une nouvelle {@link MazeRow}.
+ *
+ * @author G4
+ */
+public class EllerMazeGenerator implements Iterator<MazeRow> {
+    private final int width;
+    private final long height;
+    private final RandomGenerator random;
+
+    // Étiquettes comprises entre 0 et width - 1 : une ligne n'a jamais plus de width ensembles
+    private final int[] sets;     // ensemble de chaque cellule de la ligne courante, -1 si aucun
+    private final int[] parent;   // union-find sur les étiquettes, le temps d'une ligne
+    private final boolean[] used;
+    private final boolean[] opened;
+    private final int[] members;
+    private final int[] chosen;
+    private long row;
+
+    public EllerMazeGenerator(int width, long height) {
+        this(width, height, new SplittableRandom());
+    }
+
+    /**
+     * @param width la largeur du labyrinthe
+     * @param height la hauteur du labyrinthe, {@link Long#MAX_VALUE} pour un flux sans fin
+     * @param random le générateur aléatoire
+     */
+    public EllerMazeGenerator(int width, long height, RandomGenerator random) {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("width et height doivent être ≥ 1");
+        this.width = width;
+        this.height = height;
+        this.random = random;
+        this.sets = new int[width];
+        this.parent = new int[width];
+        this.used = new boolean[width];
+        this.opened = new boolean[width];
+        this.members = new int[width];
+        this.chosen = new int[width];
+        Arrays.fill(sets, -1);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return row < height;
+    }
+
+    @Override
+    public MazeRow next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        boolean last = row == height - 1;
+        long[] east = new long[(width + 63) >>> 6];
+        long[] south = new long[(width + 63) >>> 6];
+        Arrays.fill(east, -1L);
+        Arrays.fill(south, -1L);
+
+        // 1. Une étiquette libre pour chaque cellule qui n'appartient à aucun ensemble
+        Arrays.fill(used, false);
+        for (int col = 0; col < width; col++) {
+            if (sets[col] >= 0) used[sets[col]] = true;
+        }
+        int free = 0;
+        for (int col = 0; col < width; col++) {
+            if (sets[col] < 0) {
+                while (used[free]) free++;
+                sets[col] = free;
+                used[free] = true;
+            }
+        }
+        for (int label = 0; label < width; label++) parent[label] = label;
+
+        // 2. Fusions horizontales aléatoires (toutes obligatoires sur la dernière ligne)
+        for (int col = 0; col < width - 1; col++) {
+            int a = find(sets[col]);
+            int b = find(sets[col + 1]);
+            if (a != b && (last || random.nextBoolean())) {
+                parent[a] = b;
+                east[col >>> 6] &= ~(1L << col);
+            }
+        }
+        for (int col = 0; col < width; col++) sets[col] = find(sets[col]);
+
+        if (!last) {
+            // 3. Ouvertures vers le bas : au moins une par ensemble, tirée par échantillonnage réservoir
+            Arrays.fill(opened, false);
+            Arrays.fill(members, 0);
+            for (int col = 0; col < width; col++) {
+                int label = sets[col];
+                if (random.nextBoolean()) {
+                    south[col >>> 6] &= ~(1L << col);
+                    opened[label] = true;
+                }
+                if (random.nextInt(++members[label]) == 0) chosen[label] = col;
+            }
+            for (int col = 0; col < width; col++) {
+                int label = sets[col];
+                if (!opened[label]) {
+                    south[chosen[label] >>> 6] &= ~(1L << chosen[label]);
+                    opened[label] = true;
+                }
+            }
+
+            // 4. Seules les cellules ouvertes vers le bas transmettent leur ensemble à la ligne suivante
+            for (int col = 0; col < width; col++) {
+                if ((south[col >>> 6] & (1L << col)) != 0) sets[col] = -1;
+            }
+        }
+
+        return new MazeRow(row++, width, east, south);
+    }
+
+    private int find(int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+}
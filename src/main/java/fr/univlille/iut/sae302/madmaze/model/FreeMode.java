@@ -1,5 +1,7 @@
 package main.java.fr.univlille.iut.sae302.madmaze.model;
 
+import java.util.SplittableRandom;
+
 /**
  * Représente le mode de jeu libre où le joueur peut explorer un labyrinthe généré aléatoirement.
  * Ce mode implémente l'interface Mode et permet de créer un labyrinthe personnalisé
@@ -11,6 +13,8 @@ public class FreeMode implements Mode {
 
     private Maze maze;
     private MazeType mazeType;
+    private SplittableRandom seeds; // graines des labyrinthes si setMaze a reçu une graine, null sinon
+    private PerfectMazeAlgorithm algorithm = PerfectMazeAlgorithm.GROWING_TREE;
     private int width;
     private int height;
     private int parameter3;
@@ -19,16 +23,7 @@ public class FreeMode implements Mode {
 
     @Override
     public void prepareMaze() {
-        switch(mazeType) {
-            case RANDOM:
-                // Le paramètre wallPercentage peut être ajusté par l'utilisateur
-                this.maze = new RandomMaze(width, height, parameter3);
-                break;
-            case PERFECT:
-                // Parfait = chemin unique. minLength = longueur min du chemin solution (pour chalenge supplémentaire)
-                this.maze = new PerfectMaze(width, height, parameter3);
-                break;
-        }
+        this.maze = MazeFactory.take(mazeType, width, height, parameter3, algorithm, seeds);
     }
 
     @Override
@@ -39,6 +34,18 @@ public class FreeMode implements Mode {
         this.parameter3 = parameter3;
     }
 
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed) {
+        setMaze(mazeType, width, height, parameter3);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed, PerfectMazeAlgorithm algorithm) {
+        setMaze(mazeType, width, height, parameter3, seed);
+        this.algorithm = algorithm;
+    }
+
     /**
      * Retourne le labyrinthe associé à ce mode de jeu.
      *
@@ -13,11 +13,16 @@ public class FuelMode implements Mode {
     private Maze maze;
     private int fuelLeft;
     private int maxFuel;
-    private Set<Cell> fuelCells;
+    private long[] fuel; // bidons restants, un bit par cellule (id = row * width + col)
+    private int fuelCount;
     private MazeType mazeType;
+    private SplittableRandom seeds; // graines des labyrinthes si setMaze a reçu une graine, null sinon
+    private PerfectMazeAlgorithm algorithm = PerfectMazeAlgorithm.GROWING_TREE;
     private int width;
     private int height;
     private int thirdParameter;
+    private FuelSolver solver;
+    private Snapshot initial; // bidons et carburant à la préparation du labyrinthe, rétablis par reset()
     
     /**
      * Constructeur par défaut.
@@ -25,7 +30,7 @@ public class FuelMode implements Mode {
     public FuelMode() {
         this.maxFuel = 10;
         this.fuelLeft = maxFuel;
-        this.fuelCells = new HashSet<>();
+        this.fuel = new long[0];
     }
 
     @Override
@@ -46,55 +51,41 @@ public class FuelMode implements Mode {
         this.thirdParameter = thirdParameter;
     }
 
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int thirdParameter, long seed) {
+        setMaze(mazeType, width, height, thirdParameter);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int thirdParameter, long seed, PerfectMazeAlgorithm algorithm) {
+        setMaze(mazeType, width, height, thirdParameter, seed);
+        this.algorithm = algorithm;
+    }
+
     @Override
     public void prepareMaze() {
-        if (mazeType == MazeType.PERFECT) {
-            maze = new PerfectMaze(width, height, thirdParameter);
-        } else {
-            maze = new RandomMaze(width, height, thirdParameter);
-        }
+        maze = MazeFactory.take(mazeType, width, height, thirdParameter, algorithm, seeds);
         this.fuelLeft = maxFuel;
-        this.fuelCells = new HashSet<>();
         placeFuelCans();
+        this.initial = new Snapshot(fuel, fuelCount, fuelLeft);
     }
     
     /**
-     * Place les bidons d'essence dans le maze en garantissant qu'ils sont atteignables.
-     * Calcule le nombre de bidons nécessaires basé sur le chemin optimal + 20%.
+     * Place les bidons d'essence dans le maze en garantissant que la sortie est atteignable.
+     * Le solveur place le nombre minimal de bidons le long d'un plus court chemin, puis des bidons aléatoires
+     * s'y ajoutent : un bidon de plus ne rend jamais le niveau plus difficile.
      */
     private void placeFuelCans() {
-        List<Cell> optimalPath = maze.findOptimalPath(maze.getStart(), maze.getEnd());
-        if (optimalPath == null || optimalPath.isEmpty()) {
+        solver = new FuelSolver(maze, maxFuel);
+        fuel = FuelSolver.newCanSet(maze.getWidth() * maze.getHeight());
+        fuelCount = 0;
+        long[] cans = solver.placeCans();
+        if (cans == null) {
             return;
         }
-        
-        int minPathLength = maze.optimalPathLength();
-        
-        // Calcule le nombre de bidons nécessaires pour couvrir le chemin
-        int numberOfCans = (int) Math.ceil((double) minPathLength / maxFuel);
-        
-        if (numberOfCans <= 0) {
-            numberOfCans = 1;
-        }
-        
-        // Limite raisonnable : pas plus de bidons que la moitié de la taille du chemin
-        numberOfCans = Math.min(numberOfCans, optimalPath.size() / 2);
-        
-        List<Cell> canPositions = calculateOptimalFuelPositions(numberOfCans, optimalPath);
-        
-        // Vérifie que le dernier bidon permet d'atteindre la sortie
-        ensureReachableEnd(canPositions, optimalPath);
-        
-        for (Cell canPosition : canPositions) {
-            fuelCells.add(canPosition);
-            Cell cell = maze.getGrid()[canPosition.getRow()][canPosition.getCol()];
-            if (cell != null && !cell.equals(maze.getStart()) && !cell.equals(maze.getEnd())) {
-                if (cell instanceof RandomCell) {
-                    ((RandomCell) cell).setFuel();
-                } else if (cell instanceof PerfectCell) {
-                    ((PerfectCell) cell).setFuel();
-                }
-            }
+        for (int id = nextSetBit(cans, 0); id >= 0; id = nextSetBit(cans, id + 1)) {
+            addFuel(id);
         }
         if (maze instanceof RandomMaze) {
             placeRandomFuelCans(((RandomMaze) maze).countFreeCells() / 25); // 5% de bidons aléatoires supplémentaires
@@ -104,204 +95,82 @@ public class FuelMode implements Mode {
             placeRandomFuelCans(totalCells / 25);
         }
     }
-    
+
     /**
-     * Calcule les positions optimales pour placer les bidons d'essence.
-     * Utilise le chemin optimal et place les bidons à intervalles réguliers.
-     *
-     * @param numberOfCans le nombre de bidons à placer
-     * @param optimalPath le chemin optimal du départ à l'arrivée
-     * @return la liste des positions où placer les bidons
+     * Pose un bidon sur la cellule d'identifiant donné.
      */
-    private List<Cell> calculateOptimalFuelPositions(int numberOfCans, List<Cell> optimalPath) {
-        List<Cell> canPositions = new ArrayList<>();
-        
-        if (optimalPath == null || optimalPath.isEmpty() || numberOfCans <= 0) {
-            return canPositions;
-        }
-        
-        // Limite numberOfCans pour éviter les débordements et les calculs inutiles
-        int maxReasonableCans = Math.min(numberOfCans, optimalPath.size() - 2);
-        if (maxReasonableCans <= 0) {
-            return canPositions;
-        }
-        
-        int interval = Math.max(1, optimalPath.size() / (maxReasonableCans + 1));
-        
-        for (int i = 1; i <= maxReasonableCans; i++) {
-            // Protection contre le débordement : utilise long pour le calcul puis clamp
-            long indexLong = (long) i * interval;
-            int index = (int) Math.min(indexLong, (long) optimalPath.size() - 1);
-            
-            // Vérification de sécurité supplémentaire
-            if (index < 0 || index >= optimalPath.size()) {
-                continue;
-            }
-            
-            Cell position = optimalPath.get(index);
-            
-            if (!position.equals(maze.getStart()) && !position.equals(maze.getEnd())) {
-                canPositions.add(position);
-            }
-        }
-        
-        if (canPositions.size() < numberOfCans) {
-            addAdditionalFuelCans(canPositions, numberOfCans - canPositions.size(), optimalPath);
-        }
-        
-        return canPositions;
+    private void addFuel(int id) {
+        int width = maze.getWidth();
+        fuel[id >>> 6] |= 1L << id;
+        fuelCount++;
+        maze.getCell(id / width, id % width).setFuel();
     }
-    
+
     /**
-     * Vérifie et garantit que la sortie est atteignable depuis le dernier bidon.
-     * Ajoute un bidon supplémentaire si nécessaire.
-     *
-     * @param canPositions la liste des positions de bidons déjà calculées
-     * @param optimalPath le chemin optimal du départ à l'arrivée
+     * @return l'indice du premier bit levé à partir de {@code from}, -1 s'il n'y en a pas
      */
-    private void ensureReachableEnd(List<Cell> canPositions, List<Cell> optimalPath) {
-        if (canPositions.isEmpty() || optimalPath.isEmpty()) {
-            return;
-        }
-        
-        // Trouve la position du dernier bidon sur le chemin optimal
-        Cell lastFuel = canPositions.get(canPositions.size() - 1);
-        int lastFuelIndex = optimalPath.indexOf(lastFuel);
-        
-        if (lastFuelIndex == -1) {
-            // Le dernier bidon n'est pas sur le chemin optimal, on cherche le plus proche de la fin
-            lastFuelIndex = -1;
-            for (Cell can : canPositions) {
-                int idx = optimalPath.indexOf(can);
-                if (idx != -1 && idx > lastFuelIndex) {
-                    lastFuelIndex = idx;
-                    lastFuel = can;
-                }
-            }
-            // Si aucun bidon n'est sur le chemin optimal, on ne peut rien faire
-            if (lastFuelIndex == -1) {
-                return;
-            }
-        }
-        
-        // Calcule la distance entre le dernier bidon et la sortie
-        int distanceToEnd = optimalPath.size() - 1 - lastFuelIndex;
-        
-        // Si la distance est supérieure au fuel max, ajoute un bidon supplémentaire
-        if (distanceToEnd > maxFuel) {
-            // Place un bidon à maxFuel-1 cases avant la sortie sur le chemin optimal
-            int newFuelIndex = Math.max(lastFuelIndex + 1, optimalPath.size() - maxFuel);
-            // Clamp pour éviter dépassement : index max = size - 1
-            newFuelIndex = Math.min(newFuelIndex, optimalPath.size() - 1);
-            
-            // Vérification de sécurité supplémentaire
-            if (newFuelIndex >= 0 && newFuelIndex < optimalPath.size()) {
-                Cell newFuelPosition = optimalPath.get(newFuelIndex);
-                
-                if (!newFuelPosition.equals(maze.getEnd()) && !canPositions.contains(newFuelPosition)) {
-                    canPositions.add(newFuelPosition);
-                }
-            }
+    private static int nextSetBit(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) return -1;
+        long remaining = bits[word] & (-1L << from);
+        while (remaining == 0) {
+            if (++word == bits.length) return -1;
+            remaining = bits[word];
         }
+        return (word << 6) + Long.numberOfTrailingZeros(remaining);
     }
-    
+
     /**
-     * Ajoute des bidons supplémentaires autour du chemin optimal si nécessaire.
+     * Vérifie que la sortie est encore atteignable depuis la position donnée, avec le carburant restant
+     * et les bidons non ramassés.
      *
-     * @param currentCans les bidons déjà placés
-     * @param needed le nombre de bidons supplémentaires nécessaires
-     * @param optimalPath le chemin optimal du maze
+     * @param position la position du joueur
+     * @return true si le joueur peut encore gagner
      */
-    private void addAdditionalFuelCans(List<Cell> currentCans, int needed, List<Cell> optimalPath) {
-        Set<Cell> usedPositions = new HashSet<>(currentCans);
-        usedPositions.add(maze.getStart());
-        usedPositions.add(maze.getEnd());
-        
-        Cell[][] grid = maze.getGrid();
-        
-        for (Cell pathCell : optimalPath) {
-            if (needed <= 0) break;
-            
-            for (Direction dir : Direction.allDirections()) {
-                int newX = pathCell.getCol() + dir.getDx();
-                int newY = pathCell.getRow() + dir.getDy();
-                
-                if (isValidPosition(newX, newY)) {
-                    Cell neighbor = grid[newY][newX];
-                    if (neighbor != null && !usedPositions.contains(neighbor)) {
-                        if (maze instanceof RandomMaze) {
-                            if (!neighbor.isWall()) {
-                                currentCans.add(neighbor);
-                                usedPositions.add(neighbor);
-                                needed--;
-                                if (needed <= 0) break;
-                            }
-                        } else {
-                            currentCans.add(neighbor);
-                            usedPositions.add(neighbor);
-                            needed--;
-                            if (needed <= 0) break;
-                        }
-                    }
-                }
-            }
-        }
-
-        
+    public boolean isSolvable(Cell position) {
+        return getMinimumMoves(position) >= 0;
     }
-    
+
     /**
-     * Vérifie si une position est valide dans le maze.
+     * Calcule le nombre minimal de déplacements jusqu'à la sortie depuis la position donnée,
+     * avec le carburant restant et les bidons non ramassés.
      *
-     * @param x la coordonnée x
-     * @param y la coordonnée y
-     * @return true si la position est dans les limites du maze
+     * @param position la position du joueur
+     * @return le nombre de déplacements, -1 si la sortie n'est plus atteignable
      */
-    private boolean isValidPosition(int x, int y) {
-        return maze.isValidPosition(y, x);
+    public int getMinimumMoves(Cell position) {
+        return solver.minimumMoves(position.getRow(), position.getCol(), fuelLeft, fuel);
     }
     
+
     /**
      * Place des bidons de fuel au hasard sur des cases PATH du maze.
      *
      * @param numberOfRandomFuel le nombre de bidons aléatoires à placer
      */
     public void placeRandomFuelCans(int numberOfRandomFuel) {
-        Cell[][] grid = maze.getGrid();
-        Random random = new Random();
+        SplittableRandom random = MazeFactory.layoutRandom(seeds);
+        int width = maze.getWidth();
+        Cell start = maze.getStart();
+        Cell end = maze.getEnd();
+        int startId = start.getRow() * width + start.getCol();
+        int endId = end.getRow() * width + end.getCol();
         
         // Collecte toutes les cellules PATH (non murs, non start, non end, sans fuel déjà)
-        List<Cell> pathCells = new ArrayList<>();
-        for (int y = 0; y < maze.getHeight(); y++) {
-            for (int x = 0; x < maze.getWidth(); x++) {
-                Cell cell = grid[y][x];
-                if (cell != null && !cell.equals(maze.getStart()) 
-                    && !cell.equals(maze.getEnd())
-                    && !fuelCells.contains(cell)) {
-                    if (maze instanceof RandomMaze) {
-                        if (!cell.isWall()) {
-                            pathCells.add(cell);
-                        }
-                    } else {
-                pathCells.add(cell);
-                    }
-                }
+        int[] pathCells = new int[width * maze.getHeight()];
+        int count = 0;
+        for (int id = 0; id < pathCells.length; id++) {
+            if (id != startId && id != endId && !hasFuel(id)
+                    && !(maze instanceof RandomMaze && maze.getCell(id / width, id % width).isWall())) {
+                pathCells[count++] = id;
             }
         }
         
-        // Place les bidons aléatoirement
-        int placed = 0;
-        while (placed < numberOfRandomFuel && !pathCells.isEmpty()) {
-            int randomIndex = random.nextInt(pathCells.size());
-            Cell randomCell = pathCells.remove(randomIndex);
-            
-            fuelCells.add(randomCell);
-            if (randomCell instanceof RandomCell) {
-                ((RandomCell) randomCell).setFuel();
-            } else if (randomCell instanceof PerfectCell) {
-                ((PerfectCell) randomCell).setFuel();
-            }
-            placed++;
+        // Place les bidons aléatoirement (tirage sans remise : la cellule tirée est remplacée par la dernière)
+        for (int placed = 0; placed < numberOfRandomFuel && count > 0; placed++) {
+            int randomIndex = random.nextInt(count);
+            addFuel(pathCells[randomIndex]);
+            pathCells[randomIndex] = pathCells[--count];
         }
     }
     
@@ -323,9 +192,11 @@ public class FuelMode implements Mode {
     public void onMove(Cell newPosition) {
         fuelLeft--;
         
-        if (fuelCells.contains(newPosition)) {
+        int id = newPosition.getRow() * maze.getWidth() + newPosition.getCol();
+        if (hasFuel(id)) {
             fuelLeft = maxFuel;
-            fuelCells.remove(newPosition);
+            fuel[id >>> 6] &= ~(1L << id);
+            fuelCount--;
         }
     }
     
@@ -362,7 +233,33 @@ public class FuelMode implements Mode {
      * @return un ensemble des cellules contenant encore des bidons
      */
     public Set<Cell> getFuelCells() {
-        return new HashSet<>(fuelCells);
+        Set<Cell> cells = new HashSet<>();
+        int width = maze.getWidth();
+        for (int id = nextFuelCell(0); id >= 0; id = nextFuelCell(id + 1)) {
+            cells.add(maze.getCell(id / width, id % width));
+        }
+        return cells;
+    }
+
+    /**
+     * Retourne le nombre de bidons restants.
+     *
+     * @return le nombre de bidons non ramassés
+     */
+    public int getFuelCount() {
+        return fuelCount;
+    }
+
+    /**
+     * Parcourt les bidons restants sans allocation, dans l'ordre des identifiants de cellule :
+     * {@code for (int id = nextFuelCell(0); id >= 0; id = nextFuelCell(id + 1))}.
+     * Le parcours complet coûte un mot de 64 cellules par itération vide, plus un pas par bidon.
+     *
+     * @param fromId l'identifiant ({@code row * width + col}) à partir duquel chercher
+     * @return l'identifiant du premier bidon à partir de {@code fromId}, -1 s'il n'y en a plus
+     */
+    public int nextFuelCell(int fromId) {
+        return nextSetBit(fuel, fromId);
     }
     
     /**
@@ -372,13 +269,54 @@ public class FuelMode implements Mode {
      * @return true si un bidon non ramassé est présent sur cette cellule
      */
     public boolean hasFuelAt(Cell cell) {
-        return fuelCells.contains(cell);
+        return cell != null && hasFuelAt(cell.getRow(), cell.getCol());
+    }
+
+    /**
+     * Vérifie si un bidon de carburant est présent en (row, col), en temps constant.
+     *
+     * @param row la ligne de la cellule
+     * @param col la colonne de la cellule
+     * @return true si un bidon non ramassé est présent sur cette cellule
+     */
+    public boolean hasFuelAt(int row, int col) {
+        return maze != null && maze.isValidPosition(row, col) && hasFuel(row * maze.getWidth() + col);
+    }
+
+    private boolean hasFuel(int id) {
+        return (fuel[id >>> 6] & (1L << id)) != 0;
     }
     
     /**
-     * Réinitialise le mode fuel en régénérant le maze et les bidons.
+     * Réinitialise le mode fuel sur le même niveau : réservoir plein et bidons remis à leur place de départ,
+     * par une copie de l'ensemble de bits en O(cellules / 64). Pour un nouveau niveau, appeler {@link #prepareMaze()}.
      */
     public void reset() {
-        prepareMaze();
+        if (initial == null) {
+            prepareMaze();
+        } else {
+            initial.restore(this);
+        }
+    }
+
+    /**
+     * État du mode à la préparation du labyrinthe. Immuable : il garde sa propre copie des bidons.
+     */
+    private static final class Snapshot {
+        private final long[] fuel;
+        private final int fuelCount;
+        private final int fuelLeft;
+
+        private Snapshot(long[] fuel, int fuelCount, int fuelLeft) {
+            this.fuel = fuel.clone();
+            this.fuelCount = fuelCount;
+            this.fuelLeft = fuelLeft;
+        }
+
+        private void restore(FuelMode mode) {
+            System.arraycopy(fuel, 0, mode.fuel, 0, fuel.length);
+            mode.fuelCount = fuelCount;
+            mode.fuelLeft = fuelLeft;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Résolution du mode fuel : plus court chemin sous contrainte de carburant et placement des bidons.
+ *
+ * Un déplacement consomme une unité de carburant ; arriver sur un bidon remet le réservoir à {@code maxFuel}.
+ * Le joueur perd dès que son réservoir est vide, même sur la sortie : chaque arrivée doit donc laisser au moins
+ * une unité. Les bidons sont décrits par un ensemble de bits indexé par identifiant de cellule
+ * ({@code row * width + col}, bit {@code id & 63} du mot {@code id >>> 6}).
+ *
+ * La recherche est un parcours en largeur sur les états (cellule, carburant), rangés dans des tableaux d'entiers.
+ * Un état est dominé par un état de la même cellule atteint plus tôt avec au moins autant de carburant :
+ * on ne garde donc, par cellule, que le meilleur carburant vu, et une cellule n'entre dans la file que si son
+ * carburant s'améliore. Ramasser un bidon mène toujours au même état (bidon, {@code maxFuel}) : un plus court
+ * chemin ne repasse jamais par un bidon pour s'en resservir, et ignorer les bidons déjà ramassés reste exact.
+ *
+ * @author G4
+ */
+public class FuelSolver {
+    private final Maze maze;
+    private final int maxFuel;
+    private final int width;
+    private final int[] best; // meilleur carburant à l'arrivée par cellule, 0 si non atteinte
+    private int[] queueIds = new int[64];
+    private int[] queueFuel = new int[64];
+
+    /**
+     * @param maze le labyrinthe
+     * @param maxFuel la contenance du réservoir (au moins 2 : avec 1, aucun déplacement ne laisse de carburant
+     * sans bidon à l'arrivée)
+     */
+    public FuelSolver(Maze maze, int maxFuel) {
+        if (maxFuel < 2) throw new IllegalArgumentException("Le réservoir doit contenir au moins 2 unités");
+        this.maze = maze;
+        this.maxFuel = maxFuel;
+        this.width = maze.getWidth();
+        this.best = new int[width * maze.getHeight()];
+    }
+
+    /**
+     * Nombre minimal de déplacements de l'entrée à la sortie, réservoir plein au départ.
+     *
+     * @param cans les bidons, un bit par cellule
+     * @return le nombre de déplacements, -1 si la sortie ne peut pas être atteinte
+     */
+    public int minimumMoves(long[] cans) {
+        Cell start = maze.getStart();
+        return minimumMoves(start.getRow(), start.getCol(), maxFuel, cans);
+    }
+
+    /**
+     * Nombre minimal de déplacements jusqu'à la sortie depuis une position et un carburant donnés,
+     * par exemple en cours de partie avec les bidons restants.
+     *
+     * @param row la ligne de départ
+     * @param col la colonne de départ
+     * @param fuel le carburant restant au départ
+     * @param cans les bidons, un bit par cellule
+     * @return le nombre de déplacements, -1 si la sortie ne peut pas être atteinte
+     */
+    public int minimumMoves(int row, int col, int fuel, long[] cans) {
+        if (!maze.isValidPosition(row, col) || fuel < 1) return -1;
+        Cell end = maze.getEnd();
+        int endId = end.getRow() * width + end.getCol();
+        int startId = row * width + col;
+        if (startId == endId) return 0;
+
+        Arrays.fill(best, 0);
+        best[startId] = fuel;
+        queueIds[0] = startId;
+        queueFuel[0] = fuel;
+        int head = 0, tail = 1;
+        for (int moves = 1; head < tail; moves++) {
+            int layerEnd = tail;
+            while (head < layerEnd) {
+                int id = queueIds[head];
+                int left = queueFuel[head++] - 1;
+                int r = id / width, c = id % width;
+                int open = maze.openDirections(r, c);
+                while (open != 0) {
+                    Direction d = Direction.fromMaskBit(Integer.numberOfTrailingZeros(open));
+                    open &= open - 1;
+                    int next = (r + d.getDy()) * width + c + d.getDx();
+                    int arrival = (cans[next >>> 6] & (1L << next)) != 0 ? maxFuel : left;
+                    if (arrival <= best[next]) continue; // état dominé, ou réservoir vide
+                    if (next == endId) return moves;
+                    best[next] = arrival;
+                    if (tail == queueIds.length) {
+                        queueIds = Arrays.copyOf(queueIds, tail * 2);
+                        queueFuel = Arrays.copyOf(queueFuel, tail * 2);
+                    }
+                    queueIds[tail] = next;
+                    queueFuel[tail++] = arrival;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param cans les bidons, un bit par cellule
+     * @return true si la sortie peut être atteinte depuis l'entrée avec ces bidons
+     */
+    public boolean isSolvable(long[] cans) {
+        return minimumMoves(cans) >= 0;
+    }
+
+    /**
+     * Place le moins de bidons possible pour rendre le niveau faisable : le long d'un plus court chemin, un bidon
+     * toutes les {@code maxFuel - 1} cases, tant que la sortie est plus loin que le carburant restant.
+     * Tout trajet de longueur {@code L} demande au moins {@code ceil(L / (maxFuel - 1)) - 1} bidons, et aucun trajet
+     * n'est plus court que le plus court chemin : ce nombre est minimal.
+     *
+     * @return les bidons, un bit par cellule, ou null si la sortie n'est pas atteignable depuis l'entrée
+     */
+    public long[] placeCans() {
+        List<Cell> path = maze.findOptimalPath(maze.getStart(), maze.getEnd());
+        if (path == null || path.isEmpty()) return null;
+        long[] cans = newCanSet(best.length);
+        int length = path.size() - 1;
+        for (int last = maxFuel - 1; last < length; last += maxFuel - 1) {
+            Cell can = path.get(last);
+            int id = can.getRow() * width + can.getCol();
+            cans[id >>> 6] |= 1L << id;
+        }
+        return cans;
+    }
+
+    /**
+     * @param cellCount le nombre de cellules du labyrinthe
+     * @return un ensemble de bidons vide
+     */
+    public static long[] newCanSet(int cellCount) {
+        return new long[(cellCount + 63) >>> 6];
+    }
+}
@@ -22,9 +22,11 @@ public class Game implements Observable {
     protected Cell playerPosition;
     private int moveCount = 0;
     private Direction joueurDirection;
-    private Set<Cell> exploredCells; // Pour l'étape 6 : cellules explorées
+    private long[] exploredCells = new long[0]; // Pour l'étape 6 : cellules explorées, un bit par cellule (row * width + col)
     private int exploredCellsVisionRadius;
     private Timer madMaxRegenerationTimer;
+    private Thread stormThread;
+    private Snapshot initial; // état de départ, rétabli par reset()
 
     /**
      * Construit une nouvelle partie avec le mode de jeu spécifié.
@@ -33,17 +35,36 @@ public class Game implements Observable {
      * @param mode le mode de jeu à utiliser pour cette partie
      */
     public Game(Mode mode) {
+        this(mode, true);
+    }
+
+    /**
+     * Construit une partie sur le labyrinthe que le mode a déjà préparé, sans en générer un nouveau :
+     * par exemple après {@link ProgressionMode#selectNextChallenge()}, qui reprend un labyrinthe pré-généré.
+     *
+     * @param mode le mode de jeu, dont le labyrinthe est prêt
+     * @return la partie
+     */
+    public static Game onPreparedMaze(Mode mode) {
+        return new Game(mode, false);
+    }
+
+    private Game(Mode mode, boolean prepareMaze) {
         this.mode = mode;
-        this.exploredCells = new HashSet<>();
 
         if (this.mode != null) {
-            this.mode.prepareMaze();
+            if (prepareMaze) {
+                this.mode.prepareMaze();
+            }
             if (this.getMode().getMaze() != null) {
-                this.playerPosition = this.getMode().getMaze().getStart();
+                Maze maze = this.getMode().getMaze();
+                this.playerPosition = maze.getStart();
+                this.exploredCells = new long[(maze.getWidth() * maze.getHeight() + 63) >>> 6];
             }
         }
         setExploredCellsVision();
         exploreVision(getExploredCellsVisionRadius());
+        this.initial = new Snapshot(playerPosition, exploredCells);
         this.joueurDirection = Direction.D;
         this.moveCount = 0;
         this.observers = new ArrayList<>();
@@ -107,39 +128,31 @@ public class Game implements Observable {
             }
         }
 
-        // Calculer les coordonnées de la prochaine cellule
-        int newRow = playerPosition.getRow() + direction.getDy();
-        int newCol = playerPosition.getCol() + direction.getDx();
-        
-        // Vérifier que la position est valide dans les limites du labyrinthe
-        if (newRow >= 0 && newRow < maze.getHeight() && newCol >= 0 && newCol < maze.getWidth()) {
-            Cell nextCell = maze.getCell(newRow, newCol);
+        // Vérifier que la direction est ouverte depuis la position courante (inclut les limites du labyrinthe)
+        if ((maze.openDirections(playerPosition.getRow(), playerPosition.getCol()) & direction.mask()) != 0) {
+            Cell nextCell = maze.getCell(playerPosition.getRow() + direction.getDy(), playerPosition.getCol() + direction.getDx());
+            playerPosition = nextCell;
+            incrementMoveCount();
+            joueurDirection = direction;
+
+            if (exploredCellsVisionRadius > 0) {
+                exploreVision(exploredCellsVisionRadius);
+            } else {
+                markExplored(nextCell.getRow(), nextCell.getCol());
+            }
             
-            if (nextCell != null && maze.isDirectlyReachable(playerPosition, nextCell)){
-                playerPosition = nextCell;
-                incrementMoveCount();
-                joueurDirection = direction;
-
-                if (exploredCellsVisionRadius > 0) {
-                    exploreVision(exploredCellsVisionRadius);
-                } else if (!exploredCells.contains(nextCell)) {
-                     exploredCells.add(nextCell); 
-                }
-                
-                if (mode instanceof FuelMode) {
-                    FuelMode fuelMode = (FuelMode) mode;
-                    fuelMode.onMove(this.playerPosition);
-                }
-
-                // Démarrer la tempête au premier mouvement
-                if (mode instanceof StormMode stormMode && !stormMode.isStormStarted()) {
-                    stormMode.startStorm();
-                    startStormPropagation();
-                }
+            if (mode instanceof FuelMode) {
+                FuelMode fuelMode = (FuelMode) mode;
+                fuelMode.onMove(this.playerPosition);
+            }
 
-                notifyObservers();
-                return true;
+            // Démarrer la tempête au premier mouvement
+            if (mode instanceof StormMode stormMode && !stormMode.isStormStarted()) {
+                startStormPropagation(stormMode.startStorm());
             }
+
+            notifyObservers();
+            return true;
         }
         return false;
     }
@@ -162,10 +175,7 @@ public class Game implements Observable {
                 int x = px + dx;
                 int y = py + dy;
                 if (x >= 0 && y >= 0 && x < w && y < h) {
-                    Cell cell = getMaze().getGrid()[y][x];
-                    if (!exploredCells.contains(cell)) {
-                        exploredCells.add(cell);
-                    }
+                    markExplored(y, x);
                 }
             }
         }
@@ -194,16 +204,34 @@ public class Game implements Observable {
      * @return true si la cellule a été visitée, false sinon
      */
     public boolean isExplored(Cell cell) {
-        return exploredCells.contains(cell);
+        if (cell == null || !getMaze().isValidPosition(cell.getRow(), cell.getCol())) {
+            return false;
+        }
+        int id = cell.getRow() * getMaze().getWidth() + cell.getCol();
+        return (exploredCells[id >>> 6] & (1L << id)) != 0;
+    }
+
+    private void markExplored(int row, int col) {
+        int id = row * getMaze().getWidth() + col;
+        exploredCells[id >>> 6] |= 1L << id;
     }
 
     /**
      * Retourne l'ensemble des cellules explorées par le joueur.
+     * Construit un nouvel ensemble : pour tester une cellule, préférer {@link #isExplored(Cell)}.
      * 
      * @return un Set contenant toutes les cellules visitées
      */
     public Set<Cell> getExploredCells() {
-        return exploredCells;
+        Set<Cell> cells = new HashSet<>();
+        int w = getMaze().getWidth();
+        for (int word = 0; word < exploredCells.length; word++) {
+            for (long bits = exploredCells[word]; bits != 0; bits &= bits - 1) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                cells.add(getMaze().getCell(id / w, id % w));
+            }
+        }
+        return cells;
     }
 
     /**
@@ -253,21 +281,45 @@ public class Game implements Observable {
     }
 
     /**
-     * Réinitialise la partie à son état initial.
-     * Replace le joueur à l'entrée du labyrinthe et remet le compteur de déplacements à zéro.
+     * Réinitialise la partie à son état initial, sur le même labyrinthe : le joueur peut retenter le même niveau.
+     * Replace le joueur à l'entrée du labyrinthe, remet le compteur de déplacements à zéro, rétablit les cellules
+     * explorées au départ et remet le mode (bidons, tempête) dans son état initial, sans rien régénérer.
      */
     public void reset() {
         this.moveCount = 0;
-        this.exploredCells.clear();
-        this.exploredCells.add(this.playerPosition); // Marquer la position de départ comme explorée
         this.joueurDirection = Direction.D;
+        if (stormThread != null) {
+            stormThread.interrupt();
+            stormThread = null;
+        }
         if (mode instanceof FuelMode) {
             ((FuelMode) mode).reset();
+        } else if (mode instanceof StormMode) {
+            ((StormMode) mode).reset();
         }
-        this.playerPosition = mode.getMaze().getStart();
+        initial.restore(this);
         notifyObservers();
     }
 
+    /**
+     * État de la partie au départ : position du joueur et cellules explorées. Immuable, il est rétabli
+     * par une copie de tableau, en un mot par tranche de 64 cellules.
+     */
+    private static final class Snapshot {
+        private final Cell playerPosition;
+        private final long[] exploredCells;
+
+        private Snapshot(Cell playerPosition, long[] exploredCells) {
+            this.playerPosition = playerPosition;
+            this.exploredCells = exploredCells.clone();
+        }
+
+        private void restore(Game game) {
+            game.playerPosition = playerPosition;
+            System.arraycopy(exploredCells, 0, game.exploredCells, 0, exploredCells.length);
+        }
+    }
+
     /**
      * Démarre la régénération automatique du labyrinthe pour MadMaxMode.
      * Le labyrinthe sera régénéré toutes les 15 secondes.
@@ -300,14 +352,17 @@ public class Game implements Observable {
 
     /**
      * Démarre la propagation de la tempête dans un thread séparé.
-     * Cette méthode ne bloque pas le thread principal.
+     * Cette méthode ne bloque pas le thread principal. Les tours ne portent que sur la tempête démarrée
+     * sous le numéro {@code run} : après une remise à zéro, un tour en retard est ignoré.
+     *
+     * @param run le numéro de la tempête, rendu par {@link StormMode#startStorm()}
      */
-    private void startStormPropagation() {
-        Thread stormThread = new Thread(() -> {
-            while (!isFinished()) {
+    private void startStormPropagation(int run) {
+        stormThread = new Thread(() -> {
+            while (!isFinished() && !Thread.currentThread().isInterrupted()) {
                 try {
                     Thread.sleep(((StormMode) this.mode).getPropagationInterval());
-                    ((StormMode) this.mode).propagateStorm();
+                    ((StormMode) this.mode).propagateStorm(run);
                     notifyObservers();
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -0,0 +1,162 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Génération asynchrone et annulable d'un labyrinthe, ou de tout ce qui en construit un (une partie complète par exemple).
+ * Le travail s'exécute sur un thread de fond. Les {@link PerfectMaze} et {@link RandomMaze} construits sur ce thread
+ * publient leur avancement (cellules creusées, tentatives, pourcentage de murs courant) et s'interrompent
+ * dès que la tâche est annulée. La progression est lue par interrogation : aucune dépendance à l'interface graphique.
+ *
+ * @param <T> le type du résultat
+ * @author G4
+ */
+public class GenerationTask<T> {
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "maze-generation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ThreadLocal<GenerationTask<?>> CURRENT = new ThreadLocal<>();
+
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private final LongAdder cellsCarved = new LongAdder(); // alimenté par plusieurs threads en génération parallèle
+    private volatile long totalCells;
+    private volatile int attempts;
+    private volatile int wallPercentage = -1;
+
+    private GenerationTask() {}
+
+    /**
+     * Lance un travail en fond. Les labyrinthes construits par ce travail sur son thread rapportent leur progression
+     * à la tâche renvoyée.
+     *
+     * @param work le travail à effectuer
+     * @return la tâche, annulable via {@link #cancel()} ou via son {@link CompletableFuture}
+     */
+    public static <T> GenerationTask<T> submit(Supplier<T> work) {
+        GenerationTask<T> task = new GenerationTask<>();
+        EXECUTOR.execute(() -> task.run(work));
+        return task;
+    }
+
+    /**
+     * Lance en fond la création d'un labyrinthe (voir {@link MazeType#create(int, int, int, long, PerfectMazeAlgorithm)}).
+     */
+    public static GenerationTask<Maze> submit(MazeType type, int width, int height, int param, long seed, PerfectMazeAlgorithm algorithm) {
+        Objects.requireNonNull(type);
+        return submit(() -> type.create(width, height, param, seed, algorithm));
+    }
+
+    private void run(Supplier<T> work) {
+        if (future.isDone()) return; // annulée avant d'avoir démarré
+        CURRENT.set(this);
+        try {
+            future.complete(work.get());
+        } catch (Throwable e) {
+            future.completeExceptionally(e); // sans effet si la tâche a été annulée
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return la tâche dont le travail s'exécute sur le thread courant, ou null
+     */
+    static GenerationTask<?> current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Début de la génération d'un labyrinthe : remet les compteurs à zéro.
+     *
+     * @param totalCells le nombre de cellules à creuser au total, 0 s'il n'est pas connu à l'avance
+     * @param wallPercentage le pourcentage de murs visé, -1 s'il n'a pas de sens
+     */
+    void begin(long totalCells, int wallPercentage) {
+        checkCancelled();
+        cellsCarved.reset();
+        this.totalCells = totalCells;
+        this.attempts = 0;
+        this.wallPercentage = wallPercentage;
+    }
+
+    void carved(long cells) {
+        checkCancelled();
+        cellsCarved.add(cells);
+    }
+
+    /**
+     * Nouvelle tentative de génération, avec le pourcentage de murs en vigueur.
+     */
+    void attempt(int wallPercentage) {
+        checkCancelled();
+        this.attempts++;
+        this.wallPercentage = wallPercentage;
+    }
+
+    /**
+     * @throws CancellationException si la tâche a été annulée
+     */
+    void checkCancelled() {
+        if (future.isCancelled()) throw new CancellationException("Génération annulée");
+    }
+
+    /**
+     * Annule la tâche. La génération en cours s'arrête au prochain point de contrôle.
+     *
+     * @return true si la tâche n'était pas déjà terminée
+     */
+    public boolean cancel() {
+        return future.cancel(false);
+    }
+
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    public CompletableFuture<T> getFuture() {
+        return future;
+    }
+
+    public long getCellsCarved() {
+        return cellsCarved.sum();
+    }
+
+    public long getTotalCells() {
+        return totalCells;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return le pourcentage de murs courant (il baisse au fil des tentatives de {@link RandomMazeAlgorithm#RETRY}),
+     * -1 pour un labyrinthe parfait
+     */
+    public int getWallPercentage() {
+        return wallPercentage;
+    }
+
+    /**
+     * @return l'avancement entre 0 et 1, ou -1 s'il ne peut pas être estimé (régénérations successives)
+     */
+    public double getProgress() {
+        if (future.isDone() && !future.isCompletedExceptionally()) return 1;
+        long total = totalCells;
+        if (total <= 0) return -1;
+        return Math.min(1.0, (double) cellsCarved.sum() / total);
+    }
+}
@@ -1,11 +1,14 @@
 package main.java.fr.univlille.iut.sae302.madmaze.model;
 
 import java.util.Timer;
+import java.util.SplittableRandom;
 
 public class MadMaxMode implements Mode {
 
     protected Maze maze;
     protected MazeType mazeType;
+    protected SplittableRandom seeds; // graines des labyrinthes si setMaze a reçu une graine, null sinon
+    protected PerfectMazeAlgorithm algorithm = PerfectMazeAlgorithm.GROWING_TREE;
     protected int width;
     protected int height;
     protected int parameter3;
@@ -33,16 +36,21 @@ public class MadMaxMode implements Mode {
         this.parameter3 = parameter3;
     }
 
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed) {
+        setMaze(mazeType, width, height, parameter3);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed, PerfectMazeAlgorithm algorithm) {
+        setMaze(mazeType, width, height, parameter3, seed);
+        this.algorithm = algorithm;
+    }
+
     @Override
     public void prepareMaze() {
-        switch(mazeType) {
-            case RANDOM:
-                maze = new RandomMaze(width, height, parameter3);
-                break;
-            case PERFECT:
-                maze = new PerfectMaze(width, height, parameter3);
-                break;
-        }
+        maze = MazeFactory.take(mazeType, width, height, parameter3, algorithm, seeds);
         // Sauvegarder la position de la sortie initiale
         if (maze != null) {
             savedEnd = maze.getEnd();
@@ -51,14 +59,7 @@ public class MadMaxMode implements Mode {
 
     public void changeWalls(){
         if (maze != null) {
-            switch(mazeType) {
-                case RANDOM:
-                    maze = new RandomMaze(width, height, parameter3);
-                    break;
-                case PERFECT:
-                    maze = new PerfectMaze(width, height, parameter3);
-                    break;
-            }
+            maze = MazeFactory.take(mazeType, width, height, parameter3, algorithm, seeds);
             // Restaurer la sortie sauvegardée
             if (savedEnd != null) {
                 maze.setEnd(savedEnd);
@@ -9,8 +9,79 @@ public interface Maze {
     boolean isDirectlyReachable(Cell c1, Cell c2);
     boolean isValidPosition(int row, int col);
 
+    /**
+     * Retourne les directions dans lesquelles on peut quitter la cellule (row, col), sans allouer de cellule.
+     * Le bit {@link Direction#mask()} est levé si la cellule voisine dans cette direction est accessible.
+     *
+     * @param row la ligne de la cellule
+     * @param col la colonne de la cellule
+     * @return le masque des directions ouvertes, 0 si la position est invalide
+     */
+    int openDirections(int row, int col);
+
     List<Cell> findOptimalPath(Cell start, Cell end);
 
+    /**
+     * Choisit l'algorithme utilisé par {@link #findOptimalPath(Cell, Cell)} et {@link #optimalPathLength()}.
+     * Avec {@link PathFinder#BFS}, les chemins vers la sortie sont lus dans le champ de {@link #distanceToEnd(int, int)}.
+     * Dans un labyrinthe parfait, le chemin entre deux cellules est unique : le choix y est sans effet.
+     *
+     * @param pathFinder l'algorithme de recherche de plus court chemin
+     */
+    default void setPathFinder(PathFinder pathFinder) {}
+
+    default PathFinder getPathFinder() { return PathFinder.BFS; }
+
+    /**
+     * Indique si un chemin relie deux cellules, sans nécessairement le construire.
+     *
+     * @param from la cellule de départ
+     * @param to la cellule d'arrivée
+     * @return true si {@code to} est atteignable depuis {@code from}
+     */
+    default boolean isConnected(Cell from, Cell to) {
+        return !findOptimalPath(from, to).isEmpty();
+    }
+
+    /**
+     * Nombre de déplacements nécessaires pour aller de la cellule (row, col) à la sortie. Les distances de toutes
+     * les cellules sont calculées ensemble à la première demande, puis gardées tant que le labyrinthe ne change pas
+     * (voir {@link #getModCount()}) : les demandes suivantes se font en temps constant.
+     *
+     * @param row la ligne de la cellule
+     * @param col la colonne de la cellule
+     * @return la distance à la sortie, -1 si la sortie n'est pas atteignable ou si la position est invalide
+     */
+    int distanceToEnd(int row, int col);
+
+    /**
+     * Retourne le premier déplacement d'un plus court chemin de la cellule (row, col) vers la sortie.
+     *
+     * @param row la ligne de la cellule
+     * @param col la colonne de la cellule
+     * @return la direction à prendre, ou null si la cellule est la sortie ou ne permet pas de l'atteindre
+     */
+    default Direction nextStepToEnd(int row, int col) {
+        int distance = distanceToEnd(row, col);
+        if (distance <= 0) return null;
+        int open = openDirections(row, col);
+        for (Direction d : Direction.allDirections()) {
+            if ((open & d.mask()) != 0 && distanceToEnd(row + d.getDy(), col + d.getDx()) == distance - 1) {
+                return d;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compteur de modifications du labyrinthe : il change à chaque modification des passages ou de la sortie,
+     * et seulement dans ces cas (le sable et le carburant ne changent pas les déplacements possibles).
+     * Un résultat calculé sur le labyrinthe reste valable tant que le compteur n'a pas bougé.
+     *
+     * @return la valeur courante du compteur
+     */
+    int getModCount();
+
     void setStart(Cell start);
     void setEnd(Cell end);
 
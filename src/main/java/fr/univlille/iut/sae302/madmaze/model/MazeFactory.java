@@ -0,0 +1,296 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service de pré-génération des labyrinthes.
+ * Pour chaque clé (type, largeur, hauteur, paramètre, algorithme) demandée, un petit stock de labyrinthes
+ * est entretenu par des threads de fond : {@link #take} renvoie alors immédiatement un labyrinthe prêt,
+ * et ne génère sur le thread appelant qu'en cas de stock vide. Les clés les moins récemment demandées
+ * sont évincées lorsque la mémoire estimée des labyrinthes en stock dépasse le plafond.
+ *
+ * @author G4
+ */
+public class MazeFactory {
+
+    private static final long MAZE_OVERHEAD = 512; // objets autour de la grille d'un labyrinthe en stock, en octets
+
+    private static MazeFactory instance;
+
+    private final int poolSize;
+    private final long maxBytes;
+    private final ExecutorService workers;
+    private final SplittableRandom seeds = new SplittableRandom();
+    // Clés de la moins à la plus récemment demandée : seul take() les réordonne, pas les fins de génération
+    private final LinkedHashMap<Key, Pool> pools = new LinkedHashMap<>();
+    private long pooledBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * @return le service partagé (2 labyrinthes par clé, 64 Mo au plus, un thread de moins que de cœurs)
+     */
+    public static synchronized MazeFactory getInstance() {
+        if (instance == null) {
+            instance = new MazeFactory(2, 64L << 20, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        return instance;
+    }
+
+    /**
+     * Labyrinthe neuf pour un mode de jeu : généré à partir du flux de graines de la partie si elle en a reçu un,
+     * pour qu'elle soit reproductible, pris dans le stock du service partagé sinon.
+     *
+     * @param type le type de labyrinthe
+     * @param width la largeur
+     * @param height la hauteur
+     * @param param le pourcentage de murs (RANDOM) ou la longueur minimale du chemin (PERFECT)
+     * @param algorithm l'algorithme des labyrinthes parfaits
+     * @param seeds le flux de graines de la partie, null pour une partie non déterministe
+     * @return le labyrinthe
+     */
+    public static Maze take(MazeType type, int width, int height, int param, PerfectMazeAlgorithm algorithm,
+                            SplittableRandom seeds) {
+        if (seeds == null) return getInstance().take(type, width, height, param, algorithm);
+        return type.create(width, height, param, seeds.nextLong(), algorithm);
+    }
+
+    /**
+     * Générateur des tirages qui accompagnent le labyrinthe d'un mode (bidons, fausses sorties, départ du bot) :
+     * dérivé du flux de graines de la partie s'il existe, pour que toute la partie soit reproductible.
+     *
+     * @param seeds le flux de graines de la partie, null pour une partie non déterministe
+     * @return le générateur
+     */
+    public static SplittableRandom layoutRandom(SplittableRandom seeds) {
+        return seeds == null ? new SplittableRandom() : seeds.split();
+    }
+
+    /**
+     * @param poolSize le nombre de labyrinthes gardés prêts par clé
+     * @param maxBytes la mémoire estimée maximale des labyrinthes en stock
+     * @param workerCount le nombre de threads de génération en fond
+     */
+    public MazeFactory(int poolSize, long maxBytes, int workerCount) {
+        this.poolSize = poolSize;
+        this.maxBytes = maxBytes;
+        this.workers = Executors.newFixedThreadPool(workerCount, task -> {
+            Thread thread = new Thread(task, "maze-factory");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Retourne un labyrinthe neuf pour la clé donnée, pris dans le stock s'il y en a un, généré sur le thread
+     * appelant sinon. Dans les deux cas, le stock de la clé est ensuite complété en fond.
+     * Chaque labyrinthe n'est renvoyé qu'une seule fois : l'appelant peut le modifier librement.
+     *
+     * @param type le type de labyrinthe
+     * @param width la largeur
+     * @param height la hauteur
+     * @param param le pourcentage de murs (RANDOM) ou la longueur minimale du chemin (PERFECT)
+     * @param algorithm l'algorithme des labyrinthes parfaits
+     * @return le labyrinthe
+     */
+    public Maze take(MazeType type, int width, int height, int param, PerfectMazeAlgorithm algorithm) {
+        Key key = new Key(Objects.requireNonNull(type), width, height, param, algorithm);
+        long seed;
+        synchronized (this) {
+            Pool pool = pools.remove(key);
+            if (pool != null) pools.put(key, pool); // la clé devient la plus récemment demandée
+            if (pool != null && !pool.mazes.isEmpty()) {
+                hits++;
+                pooledBytes -= key.estimatedBytes();
+                Maze maze = pool.mazes.poll();
+                refill(key, pool);
+                return maze;
+            }
+            misses++;
+            seed = seeds.nextLong();
+        }
+
+        // Génération synchrone : une clé invalide lève son exception ici, avant tout remplissage en fond
+        Maze maze = type.create(width, height, param, seed, algorithm);
+        synchronized (this) {
+            if (capacity(key) > 0) {
+                refill(key, pools.computeIfAbsent(key, k -> new Pool()));
+            }
+        }
+        return maze;
+    }
+
+    /**
+     * @return le nombre de labyrinthes de la clé gardés en stock : {@code poolSize}, réduit pour tenir sous le
+     * plafond mémoire (0 si un seul labyrinthe le dépasse, la clé n'est alors jamais pré-générée)
+     */
+    private int capacity(Key key) {
+        return (int) Math.min(poolSize, maxBytes / key.estimatedBytes());
+    }
+
+    /**
+     * Lance en fond la génération des labyrinthes manquants d'une clé (appelé sous verrou).
+     */
+    private void refill(Key key, Pool pool) {
+        int capacity = capacity(key);
+        while (pool.mazes.size() + pool.pending < capacity) {
+            pool.pending++;
+            long seed = seeds.nextLong();
+            workers.execute(() -> {
+                Maze maze = null;
+                try {
+                    maze = key.type.create(key.width, key.height, key.param, seed, key.algorithm);
+                    releaseSearchBuffers(maze);
+                } catch (RuntimeException e) {
+                    System.err.println("Erreur lors de la pré-génération d'un labyrinthe : " + e.getMessage());
+                }
+                store(key, pool, maze);
+            });
+        }
+    }
+
+    /**
+     * Libère les tampons qu'une génération a laissés derrière elle, pour que le labyrinthe en stock
+     * corresponde à {@link #estimatedBytes}.
+     */
+    private static void releaseSearchBuffers(Maze maze) {
+        if (maze instanceof RandomMaze) {
+            ((RandomMaze) maze).releaseSearchBuffers();
+        } else if (maze instanceof PerfectMaze) {
+            ((PerfectMaze) maze).releaseSearchBuffers();
+        }
+    }
+
+    private synchronized void store(Key key, Pool pool, Maze maze) {
+        pool.pending--;
+        if (maze == null || pools.get(key) != pool) return; // échec ou clé évincée entre-temps
+        pool.mazes.add(maze);
+        pooledBytes += key.estimatedBytes();
+        evict();
+    }
+
+    /**
+     * Retire des labyrinthes en commençant par la clé la moins récemment demandée
+     * tant que le plafond mémoire est dépassé.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Key, Pool>> it = pools.entrySet().iterator();
+        while (pooledBytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, Pool> entry = it.next();
+            Pool pool = entry.getValue();
+            while (pooledBytes > maxBytes && !pool.mazes.isEmpty()) {
+                pool.mazes.poll();
+                pooledBytes -= entry.getKey().estimatedBytes();
+            }
+            if (pool.mazes.isEmpty()) it.remove();
+        }
+    }
+
+    /**
+     * Mémoire estimée d'un labyrinthe en stock, compte tenu de la libération des tampons de recherche :
+     * la grille (1 octet par cellule pour RANDOM, 2 bits par cellule pour PERFECT) et un forfait pour les objets
+     * (labyrinthe, entrée, sortie, générateur aléatoire, en-tête du tableau).
+     *
+     * @param type le type de labyrinthe
+     * @param width la largeur
+     * @param height la hauteur
+     * @return la mémoire estimée, en octets
+     */
+    public static long estimatedBytes(MazeType type, int width, int height) {
+        long cells = (long) width * height;
+        return MAZE_OVERHEAD + (type == MazeType.PERFECT ? (2 * cells + 63) / 64 * 8 : cells);
+    }
+
+    /**
+     * @return le nombre de labyrinthes prêts pour la clé donnée
+     */
+    public synchronized int pooledCount(MazeType type, int width, int height, int param, PerfectMazeAlgorithm algorithm) {
+        Pool pool = pools.get(new Key(type, width, height, param, algorithm));
+        return pool == null ? 0 : pool.mazes.size();
+    }
+
+    /**
+     * @return la mémoire estimée des labyrinthes en stock, en octets
+     */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * @return le nombre d'appels à {@link #take} servis depuis le stock
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return le nombre d'appels à {@link #take} qui ont dû générer sur le thread appelant
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Arrête les threads de fond. Les labyrinthes déjà en stock restent disponibles.
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Stock d'une clé : labyrinthes prêts et générations en cours.
+     */
+    private static class Pool {
+        private final ArrayDeque<Maze> mazes = new ArrayDeque<>();
+        private int pending;
+    }
+
+    /**
+     * Clé d'un stock de labyrinthes.
+     */
+    private static class Key {
+        private final MazeType type;
+        private final int width;
+        private final int height;
+        private final int param;
+        private final PerfectMazeAlgorithm algorithm;
+
+        Key(MazeType type, int width, int height, int param, PerfectMazeAlgorithm algorithm) {
+            this.type = type;
+            this.width = width;
+            this.height = height;
+            this.param = param;
+            // L'algorithme n'a pas d'effet sur un labyrinthe aléatoire : inutile de séparer les stocks
+            this.algorithm = type == MazeType.PERFECT ? algorithm : null;
+        }
+
+        /**
+         * @return la mémoire estimée d'un labyrinthe de cette clé (voir {@link MazeFactory#estimatedBytes})
+         */
+        long estimatedBytes() {
+            return MazeFactory.estimatedBytes(type, width, height);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Key other = (Key) obj;
+            return type == other.type && width == other.width && height == other.height
+                    && param == other.param && algorithm == other.algorithm;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, width, height, param, algorithm);
+        }
+    }
+}
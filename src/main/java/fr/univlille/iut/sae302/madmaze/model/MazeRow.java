@@ -0,0 +1,49 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+/**
+ * Représente une ligne d'un labyrinthe parfait produite par un générateur en flux
+ * (voir {@link EllerMazeGenerator}). Une ligne connaît ses murs à l'est et au sud,
+ * ce qui suffit pour la dessiner ou l'exporter sans conserver les lignes précédentes.
+ *
+ * @author G4
+ */
+public class MazeRow {
+    private final long index;
+    private final int width;
+    private final long[] eastWalls;  // bit levé = mur à l'est de la cellule
+    private final long[] southWalls; // bit levé = mur au sud de la cellule
+
+    MazeRow(long index, int width, long[] eastWalls, long[] southWalls) {
+        this.index = index;
+        this.width = width;
+        this.eastWalls = eastWalls;
+        this.southWalls = southWalls;
+    }
+
+    /**
+     * @return le numéro de la ligne dans le labyrinthe (0 pour la première)
+     */
+    public long getIndex() {
+        return this.index;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @param col la colonne de la cellule
+     * @return true s'il y a un mur entre la cellule et sa voisine de droite (toujours vrai sur le bord droit)
+     */
+    public boolean hasEastWall(int col) {
+        return (eastWalls[col >>> 6] & (1L << col)) != 0;
+    }
+
+    /**
+     * @param col la colonne de la cellule
+     * @return true s'il y a un mur entre la cellule et sa voisine du dessous (toujours vrai sur la dernière ligne)
+     */
+    public boolean hasSouthWall(int col) {
+        return (southWalls[col >>> 6] & (1L << col)) != 0;
+    }
+}
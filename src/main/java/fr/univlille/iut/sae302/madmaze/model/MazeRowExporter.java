@@ -0,0 +1,73 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+
+/**
+ * Exporte un labyrinthe produit ligne par ligne au format texte de {@link PerfectMaze#toString()}.
+ * Chaque ligne est écrite dès qu'elle est reçue : le labyrinthe n'est jamais entièrement en mémoire.
+ *
+ * @author G4
+ */
+public class MazeRowExporter {
+
+    private MazeRowExporter() {}
+
+    /**
+     * Écrit toutes les lignes restantes du flux.
+     *
+     * @param rows le flux de lignes (par exemple un {@link EllerMazeGenerator})
+     * @param out la destination
+     * @return le nombre de lignes écrites
+     * @throws IOException si l'écriture échoue
+     */
+    public static long write(Iterator<MazeRow> rows, Writer out) throws IOException {
+        long count = 0;
+        StringBuilder sb = new StringBuilder();
+        while (rows.hasNext()) {
+            MazeRow row = rows.next();
+            int width = row.getWidth();
+            sb.setLength(0);
+
+            // Bordure supérieure
+            if (count == 0) {
+                sb.append("+");
+                for (int col = 0; col < width; col++) sb.append("---+");
+                sb.append("\n");
+            }
+
+            sb.append("|");
+            for (int col = 0; col < width; col++) {
+                sb.append("   ");
+                sb.append(col < width - 1 && !row.hasEastWall(col) ? " " : "|");
+            }
+            sb.append("\n+");
+            for (int col = 0; col < width; col++) {
+                sb.append(row.hasSouthWall(col) ? "---+" : "   +");
+            }
+            sb.append("\n");
+
+            out.write(sb.toString());
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+
+    /**
+     * Écrit toutes les lignes restantes du flux dans un fichier.
+     *
+     * @param rows le flux de lignes
+     * @param path le chemin du fichier à créer ou remplacer
+     * @return le nombre de lignes écrites
+     * @throws IOException si l'écriture échoue
+     */
+    public static long write(Iterator<MazeRow> rows, String path) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(path))) {
+            return write(rows, out);
+        }
+    }
+}
@@ -1,6 +1,42 @@
 package main.java.fr.univlille.iut.sae302.madmaze.model;
 
+import java.util.SplittableRandom;
+
 public enum MazeType {
     RANDOM,
-    PERFECT
+    PERFECT;
+
+    /**
+     * Crée un labyrinthe de ce type. Le même quadruplet (largeur, hauteur, paramètre, graine)
+     * produit toujours le même labyrinthe.
+     *
+     * @param width la largeur du labyrinthe
+     * @param height la hauteur du labyrinthe
+     * @param param le pourcentage de murs (RANDOM) ou la longueur minimale du chemin (PERFECT)
+     * @param seed la graine du générateur aléatoire
+     * @return le labyrinthe généré
+     */
+    public Maze create(int width, int height, int param, long seed) {
+        return create(width, height, param, seed, PerfectMazeAlgorithm.GROWING_TREE);
+    }
+
+    /**
+     * Crée un labyrinthe de ce type avec l'algorithme de génération spécifié pour les labyrinthes parfaits.
+     *
+     * @param width la largeur du labyrinthe
+     * @param height la hauteur du labyrinthe
+     * @param param le pourcentage de murs (RANDOM) ou la longueur minimale du chemin (PERFECT)
+     * @param seed la graine du générateur aléatoire
+     * @param algorithm l'algorithme utilisé si le type est PERFECT (ignoré pour RANDOM)
+     * @return le labyrinthe généré
+     */
+    public Maze create(int width, int height, int param, long seed, PerfectMazeAlgorithm algorithm) {
+        SplittableRandom random = new SplittableRandom(seed);
+        switch (this) {
+            case PERFECT:
+                return new PerfectMaze(width, height, param, random, algorithm);
+            default:
+                return new RandomMaze(width, height, param, random);
+        }
+    }
 }
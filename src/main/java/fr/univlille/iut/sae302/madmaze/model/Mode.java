@@ -21,4 +21,14 @@ public interface Mode {
     default Profil getPlayer() { return null; }
     default int getScore() { return 0; }
     default void setMaze(MazeType mazeType, int width, int height, int value) {}
+
+    // Variante reproductible : la suite des labyrinthes générés par prepareMaze() ne dépend que de la graine
+    default void setMaze(MazeType mazeType, int width, int height, int value, long seed) {
+        setMaze(mazeType, width, height, value);
+    }
+
+    // Variante qui choisit aussi l'algorithme de génération des labyrinthes parfaits
+    default void setMaze(MazeType mazeType, int width, int height, int value, long seed, PerfectMazeAlgorithm algorithm) {
+        setMaze(mazeType, width, height, value, seed);
+    }
 }
@@ -1,6 +1,6 @@
 package main.java.fr.univlille.iut.sae302.madmaze.model;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Représente le mode Sorties Multiples (Multiple Exit Mode) du jeu MadMaze.
@@ -22,6 +22,8 @@ public class MultipleExitMode implements Mode {
 
     protected Maze maze;
     protected MazeType mazeType;
+    protected SplittableRandom seeds; // graines des labyrinthes si setMaze a reçu une graine, null sinon
+    protected PerfectMazeAlgorithm algorithm = PerfectMazeAlgorithm.GROWING_TREE;
     protected int width;
     protected int height;
     protected int parameter3;
@@ -53,16 +55,7 @@ public class MultipleExitMode implements Mode {
      */
     @Override
     public void prepareMaze() {
-        switch(mazeType) {
-            case RANDOM:
-                // Le paramètre wallPercentage peut être ajusté par l'utilisateur
-                this.maze = new RandomMaze(width, height, parameter3);
-                break;
-            case PERFECT:
-                // Parfait = chemin unique. minLength = longueur min du chemin solution (pour chalenge supplémentaire)
-                this.maze = new PerfectMaze(width, height, parameter3);
-                break;
-        }
+        this.maze = MazeFactory.take(mazeType, width, height, parameter3, algorithm, seeds);
         generateFalseExits(3);
     }
 
@@ -94,6 +87,18 @@ public class MultipleExitMode implements Mode {
         this.parameter3 = parameter3;
     }
 
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed) {
+        setMaze(mazeType, width, height, parameter3);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed, PerfectMazeAlgorithm algorithm) {
+        setMaze(mazeType, width, height, parameter3, seed);
+        this.algorithm = algorithm;
+    }
+
     /**
      * Génère aléatoirement un ensemble de fausses sorties dans le labyrinthe.
      * Les fausses sorties sont placées sur les bords du labyrinthe (haut, bas, gauche, droite)
@@ -105,7 +110,7 @@ public class MultipleExitMode implements Mode {
      * @param numberOfFalseExits le nombre de fausses sorties à générer
      */
     public void generateFalseExits(int numberOfFalseExits) {
-        Random random = new Random();
+        SplittableRandom random = MazeFactory.layoutRandom(seeds);
         falseExit = new Cell[numberOfFalseExits];
 
         int count = 0;
@@ -144,7 +149,7 @@ public class MultipleExitMode implements Mode {
             // Éviter les doublons
             boolean alreadyUsed = false;
             for (int i = 0; i < count; i++) {
-                if (falseExit[i] == cell) {
+                if (cell.equals(falseExit[i])) {
                     alreadyUsed = true;
                     break;
                 }
@@ -1,9 +1,13 @@
 package main.java.fr.univlille.iut.sae302.madmaze.model;
 
+import java.util.SplittableRandom;
+
 public class NightMode implements Mode {
 
     protected Maze maze;
     protected MazeType mazeType;
+    protected SplittableRandom seeds; // graines des labyrinthes si setMaze a reçu une graine, null sinon
+    protected PerfectMazeAlgorithm algorithm = PerfectMazeAlgorithm.GROWING_TREE;
     protected int width;
     protected int height;
     protected int parameter3;
@@ -17,16 +21,7 @@ public class NightMode implements Mode {
 
     @Override
     public void prepareMaze() {
-        switch(mazeType) {
-            case RANDOM:
-                // Le paramètre wallPercentage peut être ajusté par l'utilisateur
-                this.maze = new RandomMaze(width, height, parameter3);
-                break;
-            case PERFECT:
-                // Parfait = chemin unique. minLength = longueur min du chemin solution (pour chalenge supplémentaire)
-                this.maze = new PerfectMaze(width, height, parameter3);
-                break;
-        }
+        this.maze = MazeFactory.take(mazeType, width, height, parameter3, algorithm, seeds);
 
     }
 
@@ -38,6 +33,18 @@ public class NightMode implements Mode {
         this.parameter3 = parameter3;
     }
 
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed) {
+        setMaze(mazeType, width, height, parameter3);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed, PerfectMazeAlgorithm algorithm) {
+        setMaze(mazeType, width, height, parameter3, seed);
+        this.algorithm = algorithm;
+    }
+
     @Override
     public String getModeName() {
         return "Night Mode";
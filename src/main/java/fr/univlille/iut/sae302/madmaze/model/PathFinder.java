@@ -0,0 +1,245 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+/**
+ * Représente les algorithmes de recherche de plus court chemin utilisables par un {@link RandomMaze}.
+ * Tous renvoient un chemin de longueur minimale ; ils diffèrent par le nombre de cellules développées.
+ * Les recherches travaillent sur les identifiants de cellules ({@code row * width + col}) dans un
+ * {@link SearchWorkspace}, où elles laissent les parents de la cellule d'arrivée.
+ *
+ * @author G4
+ */
+public enum PathFinder {
+    /**
+     * Parcours en largeur exhaustif, autour du départ.
+     */
+    BFS {
+        @Override
+        boolean search(RandomMaze maze, int startId, int endId, SearchWorkspace ws) {
+            ws.reset(maze.width * maze.height);
+            ws.visit(startId, startId);
+
+            while (!ws.isEmpty()) {
+                int current = ws.poll();
+                if (current == endId) {
+                    return true;
+                }
+
+                int open = maze.openDirections(current);
+                while (open != 0) {
+                    int d = Integer.numberOfTrailingZeros(open);
+                    open &= open - 1;
+                    ws.visit(maze.step(current, d), current);
+                }
+            }
+            return false;
+        }
+    },
+    /**
+     * Parcours en largeur lancé des deux extrémités à la fois, niveau par niveau en développant la plus petite
+     * des deux frontières, jusqu'à ce qu'elles se rejoignent (voir {@link #bidirectional}).
+     */
+    BIDIRECTIONAL_BFS {
+        @Override
+        boolean search(RandomMaze maze, int startId, int endId, SearchWorkspace ws) {
+            return bidirectional(maze, startId, endId, ws, true);
+        }
+    },
+    /**
+     * A* guidé par la distance de Manhattan jusqu'à l'arrivée (admissible et cohérente sur une grille 4-connexe).
+     */
+    A_STAR {
+        @Override
+        boolean search(RandomMaze maze, int startId, int endId, SearchWorkspace ws) {
+            int width = maze.width;
+            ws.resetWeighted(width * maze.height);
+            ws.relax(startId, startId, 0);
+            ws.push(startId, manhattan(startId, endId, width), 0);
+
+            while (!ws.isHeapEmpty()) {
+                int current = ws.pop();
+                if (!ws.close(current)) continue;
+                if (current == endId) {
+                    return true;
+                }
+
+                int g = ws.cost(current) + 1;
+                int open = maze.openDirections(current);
+                while (open != 0) {
+                    int d = Integer.numberOfTrailingZeros(open);
+                    open &= open - 1;
+                    int next = maze.step(current, d);
+                    if (ws.relax(next, current, g)) {
+                        ws.push(next, g + manhattan(next, endId, width), g);
+                    }
+                }
+            }
+            return false;
+        }
+    },
+    /**
+     * Jump Point Search adapté aux déplacements 4-connexes : depuis chaque cellule développée, la recherche
+     * avance en ligne droite sans rien empiler tant qu'aucun voisin "forcé" (un passage qui s'ouvre le long
+     * d'un mur) ni l'arrivée n'apparaît. Sur une grille ouverte, seules quelques cellules sont développées.
+     * Les parents sont alors des points de saut alignés : le chemin se retrouve en reliant chacun à son parent.
+     */
+    JUMP_POINT {
+        @Override
+        boolean search(RandomMaze maze, int startId, int endId, SearchWorkspace ws) {
+            int width = maze.width;
+            ws.resetWeighted(width * maze.height);
+            ws.relax(startId, startId, 0);
+            ws.push(startId, manhattan(startId, endId, width), 0);
+
+            while (!ws.isHeapEmpty()) {
+                int current = ws.pop();
+                if (!ws.close(current)) continue;
+                if (current == endId) {
+                    return true;
+                }
+
+                int row = current / width;
+                int col = current - row * width;
+                int parent = ws.parent(current);
+                if (parent == current) {
+                    // Départ : les quatre directions
+                    jumpFrom(maze, current, row, col, -1, 0, endId, ws);
+                    jumpFrom(maze, current, row, col, 0, -1, endId, ws);
+                    jumpFrom(maze, current, row, col, 1, 0, endId, ws);
+                    jumpFrom(maze, current, row, col, 0, 1, endId, ws);
+                } else {
+                    // Voisins naturels et forcés : tout droit et sur les côtés, jamais en arrière
+                    int dr = Integer.signum(row - parent / width);
+                    int dc = Integer.signum(col - parent % width);
+                    jumpFrom(maze, current, row, col, dr, dc, endId, ws);
+                    jumpFrom(maze, current, row, col, dc, dr, endId, ws);
+                    jumpFrom(maze, current, row, col, -dc, -dr, endId, ws);
+                }
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Cherche un plus court chemin de {@code startId} à {@code endId}.
+     *
+     * @return true si l'arrivée est atteignable ; les parents sont alors lisibles dans {@code ws}
+     */
+    abstract boolean search(RandomMaze maze, int startId, int endId, SearchWorkspace ws);
+
+    /**
+     * Parcours en largeur bidirectionnel. Chaque tour développe un niveau complet de la plus petite frontière :
+     * deux disques de rayon d/2 couvrent bien moins de cellules qu'un disque de rayon d.
+     * Pour une simple réponse oui/non, la recherche s'arrête au premier contact entre les deux frontières.
+     * Pour un plus court chemin, elle termine le niveau en cours, garde le meilleur contact puis recoud les parents
+     * (voir {@link SearchWorkspace#join(int, int)}).
+     *
+     * @param shortest true pour laisser un plus court chemin dans {@code ws}, false pour la seule connexité
+     * @return true si l'arrivée est atteignable depuis le départ
+     */
+    static boolean bidirectional(RandomMaze maze, int startId, int endId, SearchWorkspace ws, boolean shortest) {
+        ws.resetBidirectional(maze.width * maze.height);
+        ws.visit(startId, startId, 0);
+        if (startId == endId) return true;
+        // Comme pour le parcours simple, on peut quitter un départ muré mais pas entrer dans une arrivée murée
+        if (maze.cells[endId] == RandomMaze.WALL) return false;
+        ws.visitBack(endId, endId, 0);
+
+        int bestLength = Integer.MAX_VALUE;
+        int bestFrom = -1; // cellule de la recherche avant
+        int bestMeet = -1; // cellule voisine de la recherche arrière
+        while (!ws.isEmpty() && !ws.isBackEmpty()) {
+            boolean forward = ws.size() <= ws.backSize();
+            for (int n = forward ? ws.size() : ws.backSize(); n > 0; n--) {
+                int current = forward ? ws.poll() : ws.pollBack();
+                int distance = (forward ? ws.cost(current) : ws.backCost(current)) + 1;
+                int open = maze.openDirections(current);
+                while (open != 0) {
+                    int d = Integer.numberOfTrailingZeros(open);
+                    open &= open - 1;
+                    int next = maze.step(current, d);
+                    if (forward) {
+                        if (ws.isBackVisited(next)) {
+                            if (!shortest) return true;
+                            if (distance + ws.backCost(next) < bestLength) {
+                                bestLength = distance + ws.backCost(next);
+                                bestFrom = current;
+                                bestMeet = next;
+                            }
+                        }
+                        ws.visit(next, current, distance);
+                    } else {
+                        if (ws.isVisited(next)) {
+                            if (!shortest) return true;
+                            if (distance + ws.cost(next) < bestLength) {
+                                bestLength = distance + ws.cost(next);
+                                bestFrom = next;
+                                bestMeet = current;
+                            }
+                        }
+                        ws.visitBack(next, current, distance);
+                    }
+                }
+            }
+            if (bestMeet >= 0) {
+                ws.join(bestFrom, bestMeet);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int manhattan(int id, int endId, int width) {
+        return Math.abs(id / width - endId / width) + Math.abs(id % width - endId % width);
+    }
+
+    /**
+     * Saute depuis la cellule développée {@code from} dans la direction (dr, dc) et empile le point de saut trouvé.
+     */
+    private static void jumpFrom(RandomMaze maze, int from, int row, int col, int dr, int dc, int endId, SearchWorkspace ws) {
+        int jumpPoint = jump(maze, row + dr, col + dc, dr, dc, endId);
+        if (jumpPoint < 0) return;
+        int width = maze.width;
+        int g = ws.cost(from) + Math.abs(jumpPoint / width - row) + Math.abs(jumpPoint % width - col);
+        if (ws.relax(jumpPoint, from, g)) {
+            ws.push(jumpPoint, g + manhattan(jumpPoint, endId, width), g);
+        }
+    }
+
+    /**
+     * Avance depuis (row, col) dans la direction (dr, dc) jusqu'au premier point de saut.
+     * En horizontal, une cellule est un point de saut si un passage s'ouvre au-dessus ou en dessous
+     * alors qu'il était fermé à la cellule précédente. En vertical, c'est aussi le cas si un saut
+     * horizontal depuis la cellule trouve un point de saut.
+     *
+     * @return l'identifiant du point de saut, ou -1 si un mur ou le bord est atteint avant
+     */
+    private static int jump(RandomMaze maze, int row, int col, int dr, int dc, int endId) {
+        int width = maze.width;
+        while (isOpen(maze, row, col)) {
+            int id = row * width + col;
+            if (id == endId) return id;
+            if (dc != 0) {
+                if ((isOpen(maze, row - 1, col) && !isOpen(maze, row - 1, col - dc))
+                        || (isOpen(maze, row + 1, col) && !isOpen(maze, row + 1, col - dc))) {
+                    return id;
+                }
+            } else {
+                if ((isOpen(maze, row, col - 1) && !isOpen(maze, row - dr, col - 1))
+                        || (isOpen(maze, row, col + 1) && !isOpen(maze, row - dr, col + 1))) {
+                    return id;
+                }
+                if (jump(maze, row, col + 1, 0, 1, endId) >= 0 || jump(maze, row, col - 1, 0, -1, endId) >= 0) {
+                    return id;
+                }
+            }
+            row += dr;
+            col += dc;
+        }
+        return -1;
+    }
+
+    private static boolean isOpen(RandomMaze maze, int row, int col) {
+        return row >= 0 && row < maze.height && col >= 0 && col < maze.width
+                && maze.cells[row * maze.width + col] != RandomMaze.WALL;
+    }
+}
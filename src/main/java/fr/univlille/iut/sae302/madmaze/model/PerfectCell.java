@@ -3,23 +3,33 @@ package main.java.fr.univlille.iut.sae302.madmaze.model;
 /**
  * Représente une cellule d'un labyrinthe parfait.
  * Une PerfectCell est caractérisée par sa position (ligne, colonne) et un éventuel joueur présent dessus.
+ * Une cellule obtenue depuis un {@link PerfectMaze} est une vue : son type est stocké dans le labyrinthe.
  */
 public class PerfectCell implements Cell {
 
     private int row;
     private int col;
     private CellType cellType;
+    private final PerfectMaze maze; // null pour une cellule autonome
 
     public PerfectCell(int row, int col) {
-        this.row = row;
-        this.col = col;
-        this.cellType = CellType.PATH;
+        this(row, col, CellType.PATH);
     }
 
     public PerfectCell(int row, int col, CellType celltype) {
         this.row = row;
         this.col = col;
         this.cellType = celltype;
+        this.maze = null;
+    }
+
+    /**
+     * Construit une vue sur la cellule (row, col) du labyrinthe donné.
+     */
+    PerfectCell(PerfectMaze maze, int row, int col) {
+        this.row = row;
+        this.col = col;
+        this.maze = maze;
     }
 
     public int getRow() {
@@ -31,11 +41,19 @@ public class PerfectCell implements Cell {
     }
 
     public CellType getCellType() {
-        return this.cellType;
+        return maze != null ? maze.getCellType(row, col) : this.cellType;
+    }
+
+    private void setCellType(CellType cellType) {
+        if (maze != null) {
+            maze.setCellType(row, col, cellType);
+        } else {
+            this.cellType = cellType;
+        }
     }
 
     public void setFuel() {
-        this.cellType = CellType.FUEL;
+        setCellType(CellType.FUEL);
     }
     
     @Override
@@ -58,16 +76,16 @@ public class PerfectCell implements Cell {
 
     @Override
     public boolean isWall() {
-        return this.cellType == CellType.WALL;
+        return getCellType() == CellType.WALL;
     }
 
     @Override
     public boolean isFuel() {
-        return this.cellType == CellType.FUEL;
+        return getCellType() == CellType.FUEL;
     }
 
     public void setPath() {
-        this.cellType = CellType.PATH;
+        setCellType(CellType.PATH);
     }
 
     /**
@@ -75,7 +93,7 @@ public class PerfectCell implements Cell {
      * Change le type de la cellule en SAND.
      */
     public void setSand() {
-        this.cellType = CellType.SAND;
+        setCellType(CellType.SAND);
     }
 
     /**
@@ -84,7 +102,7 @@ public class PerfectCell implements Cell {
      * @return true si la cellule est de type SAND, false sinon
      */
     public boolean isSand() {
-        return this.cellType == CellType.SAND;
+        return getCellType() == CellType.SAND;
     }
 
     @Override
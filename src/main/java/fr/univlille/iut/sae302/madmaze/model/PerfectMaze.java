@@ -1,151 +1,577 @@
 package main.java.fr.univlille.iut.sae302.madmaze.model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 /**
  * Représente un labyrinthe parfait généré aléatoirement.
  * Un labyrinthe parfait est un labyrinthe sans boucles où il existe un chemin unique entre
  * deux points quelconques.
+ *
+ * Les murs internes sont stockés dans un bitset ({@code long[]}) à raison de 2 bits par cellule :
+ * le bit pair indique le mur à l'est de la cellule, le bit impair le mur au sud.
+ * Les cellules ne sont pas matérialisées : {@link #getCell(int, int)} renvoie une vue légère
+ * dont l'état (carburant, sable) est lu et écrit directement dans le labyrinthe.
  * @author G4
  */
 public class PerfectMaze implements Maze {
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final int TILE_SIZE = 256;
+    private static final int DIVISION_THRESHOLD = 1 << 14; // en dessous (en cellules), une chambre est divisée sur place
+    private static final VarHandle WALLS = MethodHandles.arrayElementVarHandle(long[].class);
+
     private int width, height;
-    private boolean[][] verticalWalls, horizontalWalls;
+    private long[] walls;
+    private byte[] cellStates; // alloué au premier changement d'état d'une cellule
     private PerfectCell start, end;
     private int minLength;
-    private PerfectCell[][] grid;
+    private final RandomGenerator random;
+    private final PerfectMazeAlgorithm algorithm;
+    private GenerationTask<?> generation; // tâche qui suit la génération en cours, null hors génération asynchrone
+    private int modCount; // incrémenté à chaque génération ou changement de sortie
+    private int[] distances; // arbre enraciné à la sortie : profondeurs, valides tant que distancesModCount == modCount
+    private long[] treeParents; // directions parentes (2 bits par cellule)
+    private int[] jumps; // pointeurs de saut vers un ancêtre
+    private int distancesModCount;
 
     public PerfectMaze(int width, int height, int minLength) {
-        if (width < 2 || height < 2) 
+        this(width, height, minLength, new SplittableRandom());
+    }
+
+    /**
+     * Construit un labyrinthe parfait dont la génération est entièrement déterminée par le générateur fourni :
+     * deux labyrinthes construits avec des générateurs de même graine sont identiques.
+     *
+     * @param width la largeur du labyrinthe
+     * @param height la hauteur du labyrinthe
+     * @param minLength la longueur minimale du chemin entre l'entrée et la sortie
+     * @param random le générateur aléatoire utilisé pour la génération et le choix de l'entrée et de la sortie
+     */
+    public PerfectMaze(int width, int height, int minLength, RandomGenerator random) {
+        this(width, height, minLength, random, PerfectMazeAlgorithm.GROWING_TREE);
+    }
+
+    /**
+     * Construit un labyrinthe parfait avec l'algorithme de génération spécifié.
+     *
+     * @param width la largeur du labyrinthe
+     * @param height la hauteur du labyrinthe
+     * @param minLength la longueur minimale du chemin entre l'entrée et la sortie
+     * @param random le générateur aléatoire utilisé pour la génération et le choix de l'entrée et de la sortie
+     * @param algorithm l'algorithme de génération à utiliser
+     */
+    public PerfectMaze(int width, int height, int minLength, RandomGenerator random, PerfectMazeAlgorithm algorithm) {
+        if (width < 2 || height < 2)
             throw new IllegalArgumentException("width et height doivent être ≥ 2");
         if (minLength < 1)
             throw new IllegalArgumentException("minLength doit être ≥ 1");
         this.width = width;
         this.height = height;
-        verticalWalls = new boolean[height][width - 1];
-        horizontalWalls = new boolean[height - 1][width];
         this.minLength = minLength;
-        
-        // Initialiser la grille de cellules
-        this.grid = new PerfectCell[height][width];
+        this.random = random;
+        this.algorithm = algorithm;
 
         // Generate maze and select start/end positions
+        this.generation = GenerationTask.current();
         generateMaze();
+        this.generation = null;
     }
 
     /**
-     * algorithme de génération (Growing Tree)
+     * Génère le labyrinthe avec l'algorithme choisi (voir {@link PerfectMazeAlgorithm}),
+     * puis sélectionne l'entrée et la sortie.
      */
     @Override
     public void generateMaze() {
+        int cellCount = width * height;
 
-        for (int row = 0; row < height; row++) {
-            for (int col = 0; col < width; col++) {
-                grid[row][col] = new PerfectCell(row, col);
-            }
+        // Initialisation des murs à true (tous les murs sont présents)
+        walls = new long[(int) ((2L * cellCount + 63) >>> 6)];
+        Arrays.fill(walls, -1L);
+        cellStates = null;
+        if (generation != null) generation.begin(cellCount, -1);
+
+        switch (algorithm) {
+            case TILED_GROWING_TREE:
+                generateTiled();
+                break;
+            case ELLER:
+                generateEller();
+                break;
+            case WILSON:
+                generateWilson();
+                break;
+            case RECURSIVE_DIVISION:
+                Arrays.fill(walls, 0L); // on part d'une chambre unique, sans mur
+                ForkJoinPool.commonPool().invoke(new Division(0, 0, height, width, random));
+                break;
+            default:
+                growTree(height, width, random, this::removeWall);
+                break;
         }
 
-        // Initialisation du tableau de visites
-        boolean[][] visited = new boolean[height][width];
-        List<Cell> list = new ArrayList<>();
-        Random rand = new Random();
+        if (generation != null) generation.checkCancelled();
+        int length = selectStartAndEnd();
+        modCount++; // les passages ne changent qu'ici
 
-        // Sélection aléatoire de la cellule de départ
-        int row0 = rand.nextInt(height);
-        int col0 = rand.nextInt(width);
-        PerfectCell startCell = new PerfectCell(row0, col0);
-        list.add(startCell);
-        visited[row0][col0] = true;
+        System.out.println("Distance minimale demandé : " + minLength + "\nDistance chemin optimal : " + length);
+    }
 
-        // Initialisation des murs à true (tous les murs sont présents)
-        for (int i = 0; i < verticalWalls.length; i++){
-            for (int j = 0; j < verticalWalls[0].length; j++){
-                verticalWalls[i][j] = true;
-            }
-        }
-        for (int i = 0; i < horizontalWalls.length; i++){
-            for (int j = 0; j < horizontalWalls[0].length; j++){
-                horizontalWalls[i][j] = true;
-            }
-        }
+    /**
+     * Reçoit chaque passage creusé par {@link #growTree}.
+     */
+    private interface Carver {
+        /**
+         * @param from l'identifiant local de la cellule déjà visitée
+         * @param to l'identifiant local de la cellule nouvellement visitée
+         */
+        void carve(int from, int to);
+    }
+
+    /**
+     * Algorithme "Growing Tree" sur une grille de {@code rows} x {@code cols} cellules numérotées localement
+     * ({@code row * cols + col}). Chaque passage creusé est transmis au {@code carver}, ce qui permet
+     * d'utiliser le même algorithme sur tout le labyrinthe, sur une tuile ou sur la grille des tuiles.
+     */
+    private static void growTree(int rows, int cols, RandomGenerator rand, Carver carver) {
+        int cellCount = rows * cols;
+
+        // Initialisation du tableau de visites (1 bit par cellule)
+        long[] visited = new long[(cellCount + 63) >>> 6];
+        int[] list = new int[Math.min(cellCount, 1024)];
+        int size = 0;
+        int[] unvisitedNeighbors = new int[4];
+
+        // Sélection aléatoire de la cellule de départ
+        int startId = rand.nextInt(rows) * cols + rand.nextInt(cols);
+        list[size++] = startId;
+        visited[startId >>> 6] |= 1L << startId;
 
         // Algorithme "Growing Tree" (DFS/Prim aléatoire à chaque étape)
-        while (!list.isEmpty()) {
+        while (size > 0) {
             int index;
             if (rand.nextDouble() < 0.5) {
-                index = list.size() - 1; // DFS/backtracking (dernier visité)
+                index = size - 1; // DFS/backtracking (dernier visité)
             } else {
-                index = rand.nextInt(list.size()); // Prim (RandomCell)
+                index = rand.nextInt(size); // Prim (cellule aléatoire)
             }
-            PerfectCell current = (PerfectCell) list.get(index);
+            int current = list[index];
+            int row = current / cols;
+            int col = current - row * cols;
 
-            List<PerfectCell> unvisitedNeighbors = new ArrayList<>();
-            for (Cell n : neighbors(current.getRow(), current.getCol())) {
-                if (!visited[n.getRow()][n.getCol()])
-                    unvisitedNeighbors.add((PerfectCell) n);
-            }
+            int count = 0;
+            if (row > 0 && !isVisited(visited, current - cols)) unvisitedNeighbors[count++] = current - cols;
+            if (row < rows - 1 && !isVisited(visited, current + cols)) unvisitedNeighbors[count++] = current + cols;
+            if (col > 0 && !isVisited(visited, current - 1)) unvisitedNeighbors[count++] = current - 1;
+            if (col < cols - 1 && !isVisited(visited, current + 1)) unvisitedNeighbors[count++] = current + 1;
 
-            if (!unvisitedNeighbors.isEmpty()) {
-                PerfectCell chosen = unvisitedNeighbors.get(rand.nextInt(unvisitedNeighbors.size()));
-                removeWall(current.getRow(), current.getCol(), chosen.getRow(), chosen.getCol());
-                visited[chosen.getRow()][chosen.getCol()] = true;
-                list.add(chosen);
+            if (count > 0) {
+                int chosen = unvisitedNeighbors[rand.nextInt(count)];
+                carver.carve(current, chosen);
+                visited[chosen >>> 6] |= 1L << chosen;
+                if (size == list.length) {
+                    list = Arrays.copyOf(list, Math.min(cellCount, size * 2));
+                }
+                list[size++] = chosen;
             } else {
-                list.remove(index);
+                // Retrait en O(1) : la dernière cellule prend la place de la cellule épuisée
+                list[index] = list[--size];
             }
         }
-        
-        selectStartAndEnd();
+    }
+
+    /**
+     * Génération parallèle : la grille est découpée en tuiles de {@value #TILE_SIZE} cellules de côté,
+     * chacune reçoit son propre arbre couvrant sur le pool ForkJoin commun, puis un arbre couvrant aléatoire
+     * de la grille des tuiles indique les tuiles voisines à relier. Chaque arête de cet arbre ouvre exactement
+     * une porte dans le bord commun : le résultat reste sans boucle et entièrement connexe.
+     * Chaque tuile tire ses nombres d'un générateur dérivé de {@link #random} dans un ordre fixe,
+     * le résultat ne dépend donc pas de l'ordonnancement des threads.
+     */
+    private void generateTiled() {
+        int tileRows = (height + TILE_SIZE - 1) / TILE_SIZE;
+        int tileCols = (width + TILE_SIZE - 1) / TILE_SIZE;
+        RandomGenerator[] generators = new RandomGenerator[tileRows * tileCols];
+        for (int t = 0; t < generators.length; t++) {
+            generators[t] = split(random);
+        }
 
-        System.out.println("Distance minimale demandé : " + minLength + "\nDistance chemin optimal : " + optimalPathLength());
+        IntStream.range(0, generators.length).parallel().forEach(t -> {
+            int row0 = (t / tileCols) * TILE_SIZE;
+            int col0 = (t % tileCols) * TILE_SIZE;
+            int rows = Math.min(TILE_SIZE, height - row0);
+            int cols = Math.min(TILE_SIZE, width - col0);
+            growTree(rows, cols, generators[t], (from, to) -> removeWallAtomic(
+                    (row0 + from / cols) * width + col0 + from % cols,
+                    (row0 + to / cols) * width + col0 + to % cols));
+        });
+
+        // Couture des tuiles
+        growTree(tileRows, tileCols, random, (from, to) -> openDoor(Math.min(from, to), Math.max(from, to), tileCols));
     }
-    
+
     /**
-     * Selection de l'entrée et de la sortie du labyrinthe au hasard en respectant la distance minimale.
+     * Génère le labyrinthe en recopiant dans le bitset les lignes produites par l'algorithme d'Eller.
      */
-    private void selectStartAndEnd() {
-        Random rand = new Random();
-        
-        start = new PerfectCell(rand.nextInt(height), rand.nextInt(width));
-        
-        // Calculate distances from start
-        int[][] distances = shortestDistancesFrom((PerfectCell) start);
-        
-        // Trouver les candidats qui respectent minLength
-        List<PerfectCell> candidates = new ArrayList<>();
-        int maxDistanceFound = 0;
-        
-        for (int row = 0; row < height; row++) {
+    private void generateEller() {
+        EllerMazeGenerator rows = new EllerMazeGenerator(width, height, random);
+        while (rows.hasNext()) {
+            MazeRow row = rows.next();
+            int base = (int) row.getIndex() * width;
             for (int col = 0; col < width; col++) {
-                int dist = distances[row][col];
-                if (dist >= minLength) {
-                    candidates.add(new PerfectCell(row, col));
+                if (!row.hasEastWall(col)) removeWall(base + col, base + col + 1);
+                if (!row.hasSouthWall(col)) removeWall(base + col, base + col + width);
+            }
+        }
+    }
+
+    /**
+     * Algorithme de Wilson. Depuis chaque cellule hors de l'arbre, une marche aléatoire avance jusqu'à toucher
+     * l'arbre en notant dans {@code next} la dernière sortie prise par chaque cellule : les boucles sont ainsi
+     * effacées d'elles-mêmes. La marche est ensuite rejouée en suivant {@code next} pour creuser le chemin.
+     * Les premières marches sont les plus longues (l'arbre est petit) ; pour les accélérer, la racine est placée
+     * au centre de la grille et les directions sont tirées 2 bits par 2 bits dans un même {@code long}.
+     * Ni l'un ni l'autre ne change la loi uniforme du résultat.
+     */
+    private void generateWilson() {
+        int cellCount = width * height;
+        long[] inTree = new long[(cellCount + 63) >>> 6];
+        int[] next = new int[cellCount];
+
+        int root = (height / 2) * width + width / 2;
+        inTree[root >>> 6] |= 1L << root;
+
+        long bits = 0;
+        int bitsLeft = 0;
+        for (int first = 0; first < cellCount; first++) {
+            if (isVisited(inTree, first)) continue;
+
+            // Marche aléatoire jusqu'à l'arbre
+            int current = first;
+            while (!isVisited(inTree, current)) {
+                int row = current / width;
+                int col = current - row * width;
+                int neighbor;
+                do {
+                    if (bitsLeft == 0) {
+                        bits = random.nextLong();
+                        bitsLeft = 32;
+                    }
+                    int d = (int) (bits & 3);
+                    bits >>>= 2;
+                    bitsLeft--;
+                    switch (d) {
+                        case 0: neighbor = row > 0 ? current - width : -1; break;
+                        case 1: neighbor = col > 0 ? current - 1 : -1; break;
+                        case 2: neighbor = row < height - 1 ? current + width : -1; break;
+                        default: neighbor = col < width - 1 ? current + 1 : -1; break;
+                    }
+                } while (neighbor < 0); // rejet des sorties de la grille
+                next[current] = neighbor;
+                current = neighbor;
+            }
+
+            // Ajout du chemin sans boucle à l'arbre
+            for (current = first; !isVisited(inTree, current); current = next[current]) {
+                inTree[current >>> 6] |= 1L << current;
+                removeWall(current, next[current]);
+            }
+        }
+    }
+
+    /**
+     * Tâche de division récursive d'une chambre rectangulaire. La chambre est coupée par un mur complet percé
+     * d'une ouverture, perpendiculairement à sa plus grande dimension ; chaque moitié est un arbre couvrant
+     * et l'ouverture les relie, le labyrinthe reste donc parfait. Une chambre d'une seule ligne ou colonne
+     * est un couloir et n'est plus divisée. Les grandes chambres lancent leurs deux moitiés en parallèle avec
+     * des générateurs dérivés avant le fork, ce qui rend le résultat indépendant de l'ordonnancement.
+     */
+    private class Division extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int row0, col0, rows, cols;
+        private final RandomGenerator rand;
+
+        Division(int row0, int col0, int rows, int cols, RandomGenerator rand) {
+            this.row0 = row0;
+            this.col0 = col0;
+            this.rows = rows;
+            this.cols = cols;
+            this.rand = rand;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) rows * cols < DIVISION_THRESHOLD) {
+                divide(row0, col0, rows, cols, rand);
+                return;
+            }
+            if (rows > cols || (rows == cols && rand.nextBoolean())) {
+                int cut = rand.nextInt(rows - 1) + 1; // nombre de lignes de la moitié haute
+                addHorizontalWall(row0 + cut - 1, col0, cols, col0 + rand.nextInt(cols));
+                invokeAll(new Division(row0, col0, cut, cols, split(rand)),
+                          new Division(row0 + cut, col0, rows - cut, cols, split(rand)));
+            } else {
+                int cut = rand.nextInt(cols - 1) + 1; // nombre de colonnes de la moitié gauche
+                addVerticalWall(col0 + cut - 1, row0, rows, row0 + rand.nextInt(rows));
+                invokeAll(new Division(row0, col0, rows, cut, split(rand)),
+                          new Division(row0, col0 + cut, rows, cols - cut, split(rand)));
+            }
+        }
+    }
+
+    /**
+     * Division récursive séquentielle d'une chambre, utilisée pour les petites chambres.
+     */
+    private void divide(int row0, int col0, int rows, int cols, RandomGenerator rand) {
+        while (rows > 1 && cols > 1) {
+            if (rows > cols || (rows == cols && rand.nextBoolean())) {
+                int cut = rand.nextInt(rows - 1) + 1;
+                addHorizontalWall(row0 + cut - 1, col0, cols, col0 + rand.nextInt(cols));
+                // Récursion sur la plus petite moitié, boucle sur la plus grande : pile en O(log n)
+                if (cut < rows - cut) {
+                    divide(row0, col0, cut, cols, rand);
+                    row0 += cut;
+                    rows -= cut;
+                } else {
+                    divide(row0 + cut, col0, rows - cut, cols, rand);
+                    rows = cut;
                 }
-                if (dist > maxDistanceFound) {
-                    maxDistanceFound = dist;
+            } else {
+                int cut = rand.nextInt(cols - 1) + 1;
+                addVerticalWall(col0 + cut - 1, row0, rows, row0 + rand.nextInt(rows));
+                if (cut < cols - cut) {
+                    divide(row0, col0, rows, cut, rand);
+                    col0 += cut;
+                    cols -= cut;
+                } else {
+                    divide(row0, col0 + cut, rows, cols - cut, rand);
+                    cols = cut;
                 }
             }
         }
-        
+        if (generation != null) generation.carved((long) rows * cols); // couloir terminé
+    }
+
+    /**
+     * Pose les murs sud de la ligne {@code row}, des colonnes {@code col0} à {@code col0 + cols - 1}, sauf en {@code gap}.
+     * Les bits d'une même ligne sont contigus (un sur deux) : ils sont regroupés par mot avant un unique OU atomique.
+     */
+    private void addHorizontalWall(int row, int col0, int cols, int gap) {
+        long bit = 2L * (row * width + col0) + 1;
+        int word = (int) (bit >>> 6);
+        long mask = 0;
+        for (int col = col0; col < col0 + cols; col++, bit += 2) {
+            if ((int) (bit >>> 6) != word) {
+                WALLS.getAndBitwiseOr(walls, word, mask);
+                word = (int) (bit >>> 6);
+                mask = 0;
+            }
+            if (col != gap) mask |= 1L << bit;
+        }
+        WALLS.getAndBitwiseOr(walls, word, mask);
+    }
+
+    /**
+     * Pose les murs est de la colonne {@code col}, des lignes {@code row0} à {@code row0 + rows - 1}, sauf en {@code gap}.
+     */
+    private void addVerticalWall(int col, int row0, int rows, int gap) {
+        for (int row = row0; row < row0 + rows; row++) {
+            if (row == gap) continue;
+            long bit = 2L * (row * width + col);
+            WALLS.getAndBitwiseOr(walls, (int) (bit >>> 6), 1L << bit);
+        }
+    }
+
+    /**
+     * Ouvre une porte à une position aléatoire du bord commun entre deux tuiles voisines.
+     * @param first la tuile en haut ou à gauche
+     * @param second la tuile en bas ou à droite
+     * @param tileCols le nombre de tuiles par ligne
+     */
+    private void openDoor(int first, int second, int tileCols) {
+        int row0 = (first / tileCols) * TILE_SIZE;
+        int col0 = (first % tileCols) * TILE_SIZE;
+        if (second - first == tileCols) {
+            // Tuile du dessous : porte dans la dernière ligne de la tuile du dessus
+            int row = row0 + TILE_SIZE - 1;
+            int col = col0 + random.nextInt(Math.min(TILE_SIZE, width - col0));
+            removeWall(row * width + col, (row + 1) * width + col);
+        } else {
+            // Tuile de droite : porte dans la dernière colonne de la tuile de gauche
+            int row = row0 + random.nextInt(Math.min(TILE_SIZE, height - row0));
+            int col = col0 + TILE_SIZE - 1;
+            removeWall(row * width + col, row * width + col + 1);
+        }
+    }
+
+    /**
+     * @return un générateur indépendant dérivé de {@code random}
+     */
+    private static RandomGenerator split(RandomGenerator random) {
+        if (random instanceof RandomGenerator.SplittableGenerator) {
+            return ((RandomGenerator.SplittableGenerator) random).split();
+        }
+        return new SplittableRandom(random.nextLong());
+    }
+
+    private static boolean isVisited(long[] visited, int id) {
+        return (visited[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Selection de l'entrée et de la sortie du labyrinthe au hasard en respectant la distance minimale.
+     * Le labyrinthe étant un arbre, un parcours depuis l'entrée donne directement la distance de
+     * chaque cellule ; la sortie est tirée par échantillonnage réservoir pour ne pas stocker les candidats.
+     *
+     * @return la distance entre l'entrée et la sortie retenues
+     */
+    private int selectStartAndEnd() {
+        RandomGenerator rand = random;
+
+        int startId = rand.nextInt(height) * width + rand.nextInt(width);
+        start = getCell(startId / width, startId % width);
+
+        int[] candidate = {-1, 0, 0}; // cellule retenue, nombre de candidats vus, distance
+        int[] farthest = {-1, 0, 0};  // cellule retenue, nombre d'ex aequo, distance max
+        traverseFrom(startId, (id, parent, dist) -> {
+            // Trouver les candidats qui respectent minLength
+            if (dist >= minLength && rand.nextInt(++candidate[1]) == 0) {
+                candidate[0] = id;
+                candidate[2] = dist;
+            }
+            if (dist > farthest[2]) {
+                farthest[0] = id;
+                farthest[1] = 1;
+                farthest[2] = dist;
+            } else if (dist == farthest[2] && rand.nextInt(++farthest[1]) == 0) {
+                farthest[0] = id;
+            }
+            return false;
+        });
+
         // Si aucun candidat ne respecte minLength, prendre les cellules les plus éloignées possibles
-        if (candidates.isEmpty()) {
-            System.out.println("WARNING: minLength=" + minLength + " trop grand pour ce labyrinthe. Distance max trouvée: " + maxDistanceFound);
-            for (int row = 0; row < height; row++) {
-                for (int col = 0; col < width; col++) {
-                    if (distances[row][col] == maxDistanceFound) {
-                        candidates.add(new PerfectCell(row, col));
-                    }
-                }
+        int endId = candidate[0];
+        int length = candidate[2];
+        if (endId == -1) {
+            System.out.println("WARNING: minLength=" + minLength + " trop grand pour ce labyrinthe. Distance max trouvée: " + farthest[2]);
+            endId = farthest[0];
+            length = farthest[2];
+        }
+        this.end = getCell(endId / width, endId % width);
+        return length;
+    }
+
+    /**
+     * Visiteur appelé pour chaque cellule atteinte lors d'un parcours de l'arbre.
+     */
+    private interface TreeVisitor {
+        /**
+         * @param id l'identifiant de la cellule (row * width + col)
+         * @param parent la cellule depuis laquelle elle est atteinte (la racine est son propre parent)
+         * @param dist la distance depuis la racine du parcours
+         * @return true pour interrompre le parcours
+         */
+        boolean visit(int id, int parent, int dist);
+    }
+
+    /**
+     * Parcourt en profondeur l'arbre couvrant formé par les passages, depuis la cellule {@code rootId}.
+     * Le parcours ne maintient pas de pile : chaque cellule mémorise sur 2 bits la direction de son parent,
+     * ce qui suffit pour remonter et reprendre l'exploration. La mémoire utilisée est de 2 bits par cellule.
+     *
+     * @param rootId la racine du parcours
+     * @param visitor appelé pour chaque cellule, après son parent, avec sa distance à la racine
+     * @return le tableau des directions parentes (2 bits par cellule, indices de {@link Direction})
+     */
+    private long[] traverseFrom(int rootId, TreeVisitor visitor) {
+        long[] parents = new long[(int) ((2L * width * height + 63) >>> 6)];
+        if (visitor.visit(rootId, rootId, 0)) return parents;
+
+        int current = rootId;
+        int depth = 0;
+        int nextDirection = 0;
+        while (true) {
+            int open = openDirections(current);
+            if (current != rootId) {
+                open &= ~(1 << parentDirection(parents, current));
+            }
+            open &= -(1 << nextDirection); // ne garde que les directions pas encore explorées
+            if (open != 0) {
+                int d = Integer.numberOfTrailingZeros(open);
+                int child = step(current, d);
+                long bit = 2L * child;
+                parents[(int) (bit >>> 6)] |= (long) ((d + 2) & 3) << bit;
+                depth++;
+                if (visitor.visit(child, current, depth)) return parents;
+                current = child;
+                nextDirection = 0;
+            } else {
+                if (current == rootId) return parents;
+                int up = parentDirection(parents, current);
+                nextDirection = ((up + 2) & 3) + 1;
+                current = step(current, up);
+                depth--;
             }
         }
-        
-        this.end = candidates.get(rand.nextInt(candidates.size()));
+    }
+
+    private static int parentDirection(long[] parents, int id) {
+        long bit = 2L * id;
+        return (int) ((parents[(int) (bit >>> 6)] >>> bit) & 3L);
+    }
+
+    @Override
+    public int openDirections(int row, int col) {
+        return isValidPosition(row, col) ? openDirections(row * width + col) : 0;
+    }
+
+    /**
+     * @param id l'identifiant d'une cellule
+     * @return un masque des directions (bit {@code 1 << direction.ordinal()}) sans mur depuis cette cellule
+     */
+    private int openDirections(int id) {
+        int row = id / width;
+        int col = id - row * width;
+        int mask = 0;
+        if (row > 0 && !hasWall(2L * (id - width) + 1)) mask |= 1;           // Z (haut)
+        if (col > 0 && !hasWall(2L * (id - 1))) mask |= 1 << 1;              // Q (gauche)
+        if (row < height - 1 && !hasWall(2L * id + 1)) mask |= 1 << 2;       // S (bas)
+        if (col < width - 1 && !hasWall(2L * id)) mask |= 1 << 3;            // D (droite)
+        return mask;
+    }
+
+    /**
+     * @return l'identifiant de la cellule voisine de {@code id} dans la direction d'indice {@code direction}
+     */
+    private int step(int id, int direction) {
+        switch (direction) {
+            case 0: return id - width;
+            case 1: return id - 1;
+            case 2: return id + width;
+            default: return id + 1;
+        }
+    }
+
+    private boolean hasWall(long bit) {
+        return (walls[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Un labyrinthe parfait est un arbre couvrant : toutes ses cellules sont reliées entre elles.
+     */
+    @Override
+    public boolean isConnected(Cell from, Cell to) {
+        return isValidPosition(from.getRow(), from.getCol()) && isValidPosition(to.getRow(), to.getCol());
     }
 
 
@@ -158,10 +584,10 @@ public class PerfectMaze implements Maze {
     public boolean isDirectlyReachable(Cell c1, Cell c2) {
         // Défense sur null et position valide
         if (c1 == null || c2 == null) return false;
-        
+
         // Vérifie que les deux cellules sont valides
         if (!isValidPosition(c1.getRow(), c1.getCol()) || !isValidPosition(c2.getRow(), c2.getCol())) return false;
-        
+
         // Vérifie que les cellules sont adjacentes
         if (!adjacent(c1.getRow(), c1.getCol(), c2.getRow(), c2.getCol())) {
             return false;
@@ -172,6 +598,9 @@ public class PerfectMaze implements Maze {
 
     /**
      * Retourne le chemin optimal (le plus court) du point de départ à d'arrivée dans le labyrinthe.
+     * Dans un labyrinthe parfait le chemin est unique : il monte de chaque extrémité jusqu'à leur plus proche
+     * ancêtre commun dans l'arbre enraciné à la sortie (voir {@link #pathLength(Cell, Cell)}).
+     * Une fois l'arbre enraciné, le coût est proportionnel à la longueur du chemin.
      * @param startCell Cellule de départ
      * @param endCell Cellule d'arrivée
      * @return La liste de Cell du chemin, ou liste vide si pas de chemin (devrait être impossible en perfect maze)
@@ -181,40 +610,138 @@ public class PerfectMaze implements Maze {
         if (!(startCell instanceof PerfectCell) || !(endCell instanceof PerfectCell)) {
             throw new IllegalArgumentException("Les cellules doivent être des PerfectCell");
         }
+        if (!isValidPosition(startCell.getRow(), startCell.getCol()) || !isValidPosition(endCell.getRow(), endCell.getCol())) {
+            return Collections.emptyList();
+        }
 
-        // Cast des cellules aux types spécifiques  
-        PerfectCell start = (PerfectCell) startCell;
-        PerfectCell end = (PerfectCell) endCell;
+        int startId = startCell.getRow() * width + startCell.getCol();
+        int endId = endCell.getRow() * width + endCell.getCol();
+        int[] depth = rootTree();
+        int ancestor = commonAncestor(startId, endId);
+        int up = depth[startId] - depth[ancestor];
+        int length = up + depth[endId] - depth[ancestor];
 
-        int[][] dist = shortestDistancesFrom(start);
-        if (dist[end.getRow()][end.getCol()] == -1) return Collections.emptyList(); // pas de chemin
+        Cell[] path = new Cell[length + 1];
+        int cur = startId;
+        for (int i = 0; i < up; i++) { // du départ vers l'ancêtre commun
+            path[i] = getCell(cur / width, cur % width);
+            cur = treeParent(cur);
+        }
+        path[up] = getCell(ancestor / width, ancestor % width);
+        cur = endId;
+        for (int i = length; i > up; i--) { // puis de l'arrivée vers l'ancêtre commun, à rebours
+            path[i] = getCell(cur / width, cur % width);
+            cur = treeParent(cur);
+        }
+        return new ArrayList<>(Arrays.asList(path));
+    }
 
-        List<Cell> path = new ArrayList<>();
-        Cell cur = end;
-        path.add(cur);
+    /**
+     * Longueur du chemin entre deux cellules, sans le construire : les deux profondeurs moins deux fois celle
+     * de leur plus proche ancêtre commun, trouvé en O(log n) sauts.
+     *
+     * @param from la première cellule
+     * @param to la seconde cellule
+     * @return le nombre de déplacements entre les deux cellules, -1 si l'une des positions est invalide
+     */
+    public int pathLength(Cell from, Cell to) {
+        if (!isValidPosition(from.getRow(), from.getCol()) || !isValidPosition(to.getRow(), to.getCol())) return -1;
+        int a = from.getRow() * width + from.getCol();
+        int b = to.getRow() * width + to.getCol();
+        int[] depth = rootTree();
+        return depth[a] + depth[b] - 2 * depth[commonAncestor(a, b)];
+    }
 
-        while (!cur.equals(start)) {
-            int d = dist[cur.getRow()][cur.getCol()];
-            boolean moved = false;
-            for (Cell nb : neighbors(cur.getRow(), cur.getCol())) {
-                if (!isWall(cur.getRow(), cur.getCol(), nb.getRow(), nb.getCol()) && dist[nb.getRow()][nb.getCol()] == d - 1) {
-                    cur = nb;
-                    path.add(cur);
-                    moved = true;
-                    break;
-                }
-            }
-            if (!moved) {
-                // Défensive: ne devrait pas arriver si dist est correct
-                return Collections.emptyList();
+    /**
+     * Enracine l'arbre couvrant à la sortie (à la première cellule tant qu'il n'y a pas de sortie), si le labyrinthe
+     * a été regénéré ou la sortie déplacée depuis le dernier enracinement. Chaque cellule reçoit sa profondeur,
+     * qui est sa distance à la sortie, la direction de son parent et un pointeur de saut vers un ancêtre.
+     * Les sauts suivent la règle de Myers : la cellule saute deux fois plus loin que son parent quand
+     * les deux sauts précédents sont de même longueur, sinon elle pointe sur son parent. Tout ancêtre est alors
+     * atteint en O(log n) sauts, pour 4 octets par cellule (des tables de doublement en demanderaient 4 log n).
+     *
+     * @return les profondeurs
+     */
+    private int[] rootTree() {
+        if (distances != null && distancesModCount == modCount) return distances;
+        int n = width * height;
+        if (distances == null || distances.length != n) {
+            distances = new int[n];
+            jumps = new int[n];
+        }
+        int[] depth = distances;
+        int[] jump = jumps;
+        int rootId = end == null ? 0 : end.getRow() * width + end.getCol();
+        treeParents = traverseFrom(rootId, (id, parent, d) -> {
+            depth[id] = d;
+            int up = jump[parent];
+            jump[id] = id == rootId ? id : (depth[parent] - depth[up] == depth[up] - depth[jump[up]] ? jump[up] : parent);
+            return false;
+        });
+        distancesModCount = modCount;
+        return depth;
+    }
+
+    /**
+     * Libère l'arbre enraciné à la sortie, recalculé à la prochaine demande :
+     * un labyrinthe qui attend en stock ne garde que ses cloisons, à 2 bits par cellule.
+     */
+    void releaseSearchBuffers() {
+        distances = null;
+        jumps = null;
+        treeParents = null;
+    }
+
+    /**
+     * @return le parent de {@code id} dans l'arbre enraciné (ne pas appeler sur la racine)
+     */
+    private int treeParent(int id) {
+        return step(id, parentDirection(treeParents, id));
+    }
+
+    /**
+     * Plus proche ancêtre commun de deux cellules dans l'arbre enraciné : la plus profonde remonte à la profondeur
+     * de l'autre, puis les deux montent ensemble. Deux cellules de même profondeur ont des sauts de même longueur,
+     * on saute donc tant que les sauts ne se rejoignent pas.
+     */
+    private int commonAncestor(int a, int b) {
+        int[] depth = distances;
+        int[] jump = jumps;
+        if (depth[a] < depth[b]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        while (depth[a] > depth[b]) {
+            a = depth[jump[a]] >= depth[b] ? jump[a] : treeParent(a);
+        }
+        while (a != b) {
+            if (jump[a] != jump[b]) {
+                a = jump[a];
+                b = jump[b];
+            } else {
+                a = treeParent(a);
+                b = treeParent(b);
             }
         }
+        return a;
+    }
 
-        Collections.reverse(path);
-        return path;
+    /**
+     * L'arbre couvrant relie toutes les cellules : la distance est toujours définie pour une position valide.
+     */
+    @Override
+    public int distanceToEnd(int row, int col) {
+        if (end == null || !isValidPosition(row, col)) return -1;
+        return rootTree()[row * width + col];
     }
 
-    /** 
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
      * Vérifie s'il y a un mur entre les deux cellules adjacentes spécifiées.
      * @param row la ligne de la première cellule
      * @param col la colonne de la première cellule
@@ -230,16 +757,16 @@ public class PerfectMaze implements Maze {
 
         if (!isValidPosition(row, col) || !isValidPosition(row2, col2)) return true;
 
-        // Si adjacence horizontale
+        // Si adjacence horizontale : mur est de la cellule de gauche
         if (row == row2) {
             int cMin = Math.min(col, col2);
-            return verticalWalls[row][cMin];
+            return hasWall(2L * (row * width + cMin));
         }
 
-        // Si adjacence verticale
+        // Si adjacence verticale : mur sud de la cellule du haut
         if (col == col2) {
             int rMin = Math.min(row, row2);
-            return horizontalWalls[rMin][col];
+            return hasWall(2L * (rMin * width + col) + 1);
         }
 
         // Cas impossible si la méthode adjacent est correcte
@@ -287,15 +814,37 @@ public class PerfectMaze implements Maze {
         if (!isValidPosition(row1, col1) || !isValidPosition(row2, col2))
             throw new IllegalArgumentException("Position invalide");
 
-        if (row1 == row2) {
-            // Supression d'un mur vertical
-            int minCol = Math.min(col1, col2);
-            verticalWalls[row1][minCol] = false;
-        } else if (col1 == col2) {
-            // Suppression d'un mur horizontal
-            int minRow = Math.min(row1, row2);
-            horizontalWalls[minRow][col1] = false;
-        } 
+        removeWall(row1 * width + col1, row2 * width + col2);
+    }
+
+    /**
+     * Retire le mur entre deux cellules adjacentes désignées par leur identifiant.
+     * @param id1
+     * @param id2
+     */
+    private void removeWall(int id1, int id2) {
+        long bit = wallBit(id1, id2);
+        walls[(int) (bit >>> 6)] &= ~(1L << bit);
+        if (generation != null) generation.carved(1);
+    }
+
+    /**
+     * Variante de {@link #removeWall(int, int)} sûre lorsque plusieurs threads modifient le même mot du bitset
+     * (deux tuiles voisines peuvent partager un {@code long}).
+     */
+    private void removeWallAtomic(int id1, int id2) {
+        long bit = wallBit(id1, id2);
+        WALLS.getAndBitwiseAnd(walls, (int) (bit >>> 6), ~(1L << bit));
+        if (generation != null) generation.carved(1);
+    }
+
+    /**
+     * @return l'indice dans le bitset du mur séparant deux cellules adjacentes
+     */
+    private long wallBit(int id1, int id2) {
+        int first = Math.min(id1, id2);
+        // Mur est de la première cellule si voisines sur la même ligne, mur sud sinon
+        return (Math.abs(id1 - id2) == 1) ? 2L * first : 2L * first + 1;
     }
 
     /**
@@ -306,45 +855,19 @@ public class PerfectMaze implements Maze {
      */
     public List<Cell> neighbors(int row, int col) {
         List<Cell> neighbors = new ArrayList<>();
-        if (row > 0) neighbors.add(new PerfectCell(row - 1, col));
-        if (row < height - 1) neighbors.add(new PerfectCell(row + 1, col));
-        if (col > 0) neighbors.add(new PerfectCell(row, col - 1));
-        if (col < width - 1) neighbors.add(new PerfectCell(row, col + 1));
+        if (row > 0) neighbors.add(getCell(row - 1, col));
+        if (row < height - 1) neighbors.add(getCell(row + 1, col));
+        if (col > 0) neighbors.add(getCell(row, col - 1));
+        if (col < width - 1) neighbors.add(getCell(row, col + 1));
         return neighbors;
     }
 
-    /**
-     * Calcule les distances les plus courtes depuis la cellule de départ vers toutes les autres cellules.
-     * @param start
-     * @return un tableau 2D , -1 si inaccessible
-     */
-    private int[][] shortestDistancesFrom(Cell start) {
-
-        int[][] dist = new int[height][width];
-        for (int[] line : dist) Arrays.fill(line, -1);
-        Queue<Cell> queue = new LinkedList<>();
-        queue.offer(start);
-        dist[start.getRow()][start.getCol()] = 0;
-
-        while (!queue.isEmpty()) {
-            Cell c = queue.poll();
-            for (Cell n : neighbors(c.getRow(), c.getCol())) {
-                if (!isWall(c.getRow(), c.getCol(), n.getRow(), n.getCol())
-                    && dist[n.getRow()][n.getCol()] == -1) {
-                    dist[n.getRow()][n.getCol()] = dist[c.getRow()][c.getCol()] + 1;
-                    queue.offer(n);
-                }
-            }
-        }
-        return dist;
-    }
-
     /**
      * @return la longueur minimale du chemin entre le point de départ et le point d'arrivée
      */
     @Override
     public int optimalPathLength() {
-        return findOptimalPath(getStart(), getEnd()).size() - 1;
+        return distanceToEnd(start.getRow(), start.getCol());
     }
 
     @Override
@@ -371,7 +894,7 @@ public class PerfectMaze implements Maze {
                 sb.append(caseCourante);
 
                 // Mur vertical de droite
-                if (col < width - 1 && verticalWalls[row][col])
+                if (col < width - 1 && isWall(row, col, row, col + 1))
                     sb.append("|");
                 else
                     sb.append(" ");
@@ -383,7 +906,7 @@ public class PerfectMaze implements Maze {
             for (int col = 0; col < width; col++) {
                 if (row < height - 1) {
                     // Murs internes horizontaux
-                    if (horizontalWalls[row][col]) {
+                    if (isWall(row, col, row + 1, col)) {
                         sb.append("---");
                     } else {
                         sb.append("   ");
@@ -424,38 +947,84 @@ public class PerfectMaze implements Maze {
         generateMaze();
     }
 
+    /**
+     * Place l'entrée sur la position de la cellule donnée. La cellule est reliée à ce labyrinthe : une vue prise
+     * sur un autre labyrinthe n'y est pas conservée.
+     */
     @Override
     public void setStart(Cell start) {
         if (!(start instanceof PerfectCell)) {
             throw new IllegalArgumentException("Start must be a PerfectCell");
         }
-        this.start = (PerfectCell) start;
+        if (!isValidPosition(start.getRow(), start.getCol())) {
+            throw new IllegalArgumentException("Start must be inside the maze");
+        }
+        this.start = getCell(start.getRow(), start.getCol());
     }
 
+    /**
+     * Place la sortie sur la position de la cellule donnée, reliée à ce labyrinthe comme pour {@link #setStart}.
+     */
     @Override
     public void setEnd(Cell end) {
         if (!(end instanceof PerfectCell)) {
             throw new IllegalArgumentException("End must be a PerfectCell");
         }
-        this.end = (PerfectCell) end; 
+        if (!isValidPosition(end.getRow(), end.getCol())) {
+            throw new IllegalArgumentException("End must be inside the maze");
+        }
+        this.end = getCell(end.getRow(), end.getCol());
+        modCount++;
     }
 
     /**
+     * Construit une grille de vues sur toutes les cellules, pour compatibilité.
+     * Coûteux sur les grands labyrinthes : préférer {@link #getCell(int, int)}.
      * @return une grille virtuelle de Cell pour compatibilité avec les vues
      */
     @Override
     public Cell[][] getGrid() {
+        Cell[][] grid = new Cell[height][width];
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                grid[row][col] = getCell(row, col);
+            }
+        }
         return grid;
     }
 
+    /**
+     * Retourne une vue sur la cellule demandée. La vue n'est pas conservée par le labyrinthe :
+     * deux appels successifs renvoient deux objets égaux partageant le même état.
+     */
     @Override
     public PerfectCell getCell(int row, int col) {
         if (isValidPosition(row, col)) {
-            return grid[row][col];
+            return new PerfectCell(this, row, col);
         }
         return null;
     }
 
+    /**
+     * @return le type courant de la cellule (PATH tant qu'aucun état n'a été posé)
+     */
+    CellType getCellType(int row, int col) {
+        if (cellStates == null) return CellType.PATH;
+        return CELL_TYPES[cellStates[row * width + col]];
+    }
+
+    /**
+     * Modifie le type d'une cellule. Le tableau d'états n'est alloué qu'au premier appel.
+     */
+    void setCellType(int row, int col, CellType cellType) {
+        if (cellStates == null) {
+            if (cellType == CellType.PATH) return;
+            cellStates = new byte[width * height];
+            Arrays.fill(cellStates, (byte) CellType.PATH.ordinal());
+        }
+        cellStates[row * width + col] = (byte) cellType.ordinal();
+    }
+
     @Override
     public int getWidth() { return this.width; }
 
@@ -475,8 +1044,8 @@ public class PerfectMaze implements Maze {
      * @return true si la cellule est la cellule de fin, false sinon
      */
     @Override
-    public boolean isEnd(Cell cell) { 
-        return cell != null && this.end != null && cell.getCol() == this.end.getCol() && cell.getRow() == this.end.getRow(); 
+    public boolean isEnd(Cell cell) {
+        return cell != null && this.end != null && cell.getCol() == this.end.getCol() && cell.getRow() == this.end.getRow();
     }
 
 }
@@ -0,0 +1,31 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+/**
+ * Représente les algorithmes de génération disponibles pour un {@link PerfectMaze}.
+ *
+ * @author G4
+ */
+public enum PerfectMazeAlgorithm {
+    /**
+     * Growing Tree sur toute la grille, sur un seul thread.
+     */
+    GROWING_TREE,
+    /**
+     * Growing Tree en parallèle sur des tuiles indépendantes, recousues ensuite par un arbre couvrant des tuiles.
+     * Adapté aux très grands labyrinthes ; les bords de tuiles restent visibles (une seule porte par bord).
+     */
+    TILED_GROWING_TREE,
+    /**
+     * Algorithme d'Eller : le labyrinthe est produit ligne par ligne par un {@link EllerMazeGenerator}.
+     */
+    ELLER,
+    /**
+     * Algorithme de Wilson (marches aléatoires à effacement de boucles) : chaque arbre couvrant
+     * de la grille a la même probabilité d'être tiré, sans le biais en longs couloirs du Growing Tree.
+     */
+    WILSON,
+    /**
+     * Division récursive : chaque chambre est coupée par un mur percé d'une seule ouverture, et les deux
+     * sous-chambres sont traitées en parallèle par des tâches ForkJoin indépendantes.
+     */
+    RECURSIVE_DIVISION
+}
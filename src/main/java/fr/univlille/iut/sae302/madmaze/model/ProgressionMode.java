@@ -3,6 +3,10 @@ package main.java.fr.univlille.iut.sae302.madmaze.model;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Représente le mode de jeu en progression avec des étapes et des défis de difficulté croissante.
@@ -13,11 +17,25 @@ import java.util.Random;
  */
 public class ProgressionMode implements Mode {
 
+    /**
+     * Thread de fond partagé des pré-générations : un seul à la fois, pour qu'une pré-génération
+     * annulée avant son démarrage ne coûte rien.
+     */
+    private static final ExecutorService PREFETCH = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "progression-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
     private final List<Level> levels;
     private Maze maze;
     private final Profil player;
     private int currentLevelIndex;
     private int currentChallengeIndex;
+    private final SplittableRandom seeds = new SplittableRandom();
+    private Prefetch nextPrefetch;  // défi suivant
+    private Prefetch retryPrefetch; // nouvelle copie du défi courant, en cas d'échec
 
     public ProgressionMode(Profil player) {
         this.levels = buildAllLevels();
@@ -27,19 +45,126 @@ public class ProgressionMode implements Mode {
         this.maze = null;
     }
 
+    /**
+     * Prépare le labyrinthe du défi courant, en reprenant une pré-génération si elle le concerne,
+     * puis lance en fond la génération du défi suivant et d'une copie du défi courant.
+     */
     @Override
     public void prepareMaze() {
-        Challenge challenge = getCurrentChallenge();
-        Level level = getCurrentLevel();
-        MazeType type = level.getMazeType();
-
-        if (type == MazeType.PERFECT) {
-            maze = new PerfectMaze(challenge.getWidth(), challenge.getHeight(), challenge.getMazeParam()); // mazeParam = minSolutionLength
-        } else {
-            maze = new RandomMaze(challenge.getWidth(), challenge.getHeight(), challenge.getMazeParam());  // mazeParam = wall percentage
+        Maze prefetched = claimPrefetch(currentLevelIndex, currentChallengeIndex);
+        maze = prefetched != null ? prefetched : buildMaze(currentLevelIndex, currentChallengeIndex, seeds.nextLong());
+
+        retryPrefetch = prefetch(currentLevelIndex, currentChallengeIndex);
+        int[] next = nextChallenge();
+        if (next == null) {
+            cancel(nextPrefetch);
+            nextPrefetch = null;
+        } else if (nextPrefetch == null || !nextPrefetch.targets(next[0], next[1])) {
+            cancel(nextPrefetch);
+            nextPrefetch = prefetch(next[0], next[1]);
         }
     }
 
+    /**
+     * Construit le labyrinthe d'un défi.
+     * mazeParam = pourcentage de murs (RANDOM) ou longueur minimale du chemin (PERFECT)
+     */
+    private Maze buildMaze(int lvl, int ch, long seed) {
+        Challenge challenge = levels.get(lvl).getChallenge(ch);
+        return levels.get(lvl).getMazeType().create(challenge.getWidth(), challenge.getHeight(), challenge.getMazeParam(), seed);
+    }
+
+    private Prefetch prefetch(int lvl, int ch) {
+        long seed = seeds.nextLong();
+        return new Prefetch(lvl, ch, CompletableFuture.supplyAsync(() -> buildMaze(lvl, ch, seed), PREFETCH));
+    }
+
+    /**
+     * Retire et renvoie le labyrinthe pré-généré pour le défi donné, en attendant la fin de sa génération
+     * si elle est en cours.
+     *
+     * @return le labyrinthe, ou null si aucune pré-génération ne concerne ce défi ou si elle a échoué
+     */
+    private Maze claimPrefetch(int lvl, int ch) {
+        Prefetch claimed = null;
+        if (retryPrefetch != null && retryPrefetch.targets(lvl, ch)) {
+            claimed = retryPrefetch;
+            retryPrefetch = null;
+        } else if (nextPrefetch != null && nextPrefetch.targets(lvl, ch)) {
+            claimed = nextPrefetch;
+            nextPrefetch = null;
+        }
+        if (claimed == null) return null;
+        try {
+            return claimed.future.join();
+        } catch (RuntimeException e) {
+            return null; // annulée ou en erreur : on génère sur le thread appelant
+        }
+    }
+
+    /**
+     * @return les indices (étape, défi) du défi qui suit le défi courant, ou null s'il n'y en a pas
+     */
+    private int[] nextChallenge() {
+        if (currentChallengeIndex + 1 < getCurrentLevel().getChallenges().size()) {
+            return new int[] {currentLevelIndex, currentChallengeIndex + 1};
+        }
+        if (currentLevelIndex + 1 < levels.size()) {
+            return new int[] {currentLevelIndex + 1, 0};
+        }
+        return null;
+    }
+
+    private static void cancel(Prefetch prefetch) {
+        if (prefetch != null) prefetch.future.cancel(false);
+    }
+
+    /**
+     * Annule les pré-générations en cours, par exemple en quittant le mode.
+     * Une génération déjà démarrée se termine et son résultat est ignoré.
+     */
+    public void cancelPrefetch() {
+        cancel(nextPrefetch);
+        cancel(retryPrefetch);
+        nextPrefetch = null;
+        retryPrefetch = null;
+    }
+
+    /**
+     * @return true si un labyrinthe est en cours de pré-génération ou prêt pour le défi donné
+     */
+    public boolean isPrefetched(int lvl, int ch) {
+        return (nextPrefetch != null && nextPrefetch.targets(lvl, ch) && !nextPrefetch.future.isCancelled())
+                || (retryPrefetch != null && retryPrefetch.targets(lvl, ch) && !retryPrefetch.future.isCancelled());
+    }
+
+    /**
+     * Passe au défi suivant (ou à la première difficulté de l'étape suivante).
+     *
+     * @return false si le défi courant est le dernier
+     */
+    public boolean selectNextChallenge() {
+        int[] next = nextChallenge();
+        if (next == null) return false;
+        selectLevelAndChallenge(next[0], next[1]);
+        return true;
+    }
+
+    /**
+     * @return true si un défi suit le défi courant
+     */
+    public boolean hasNextChallenge() {
+        return nextChallenge() != null;
+    }
+
+    /**
+     * Prépare une nouvelle tentative du défi courant, sur la copie pré-générée du défi.
+     * La pré-génération du défi suivant est conservée.
+     */
+    public void retryChallenge() {
+        prepareMaze();
+    }
+
     public List<Level> buildAllLevels() {
         List<Level> allLevels = new ArrayList<>();
 
@@ -107,6 +232,15 @@ public class ProgressionMode implements Mode {
         if (ch < 0 || ch >= levels.get(lvl).getChallenges().size()) {
             throw new IndexOutOfBoundsException("Index challenge out of bounds");
         }
+        // Le joueur change de défi : les pré-générations qui ne le concernent pas sont abandonnées
+        if (nextPrefetch != null && !nextPrefetch.targets(lvl, ch)) {
+            cancel(nextPrefetch);
+            nextPrefetch = null;
+        }
+        if (retryPrefetch != null && !retryPrefetch.targets(lvl, ch)) {
+            cancel(retryPrefetch);
+            retryPrefetch = null;
+        }
         this.currentLevelIndex = lvl;
         this.currentChallengeIndex = ch;
         prepareMaze(); // régénère automatiquement le bon maze adapté
@@ -163,5 +297,22 @@ public class ProgressionMode implements Mode {
         return 30; // Fallback par défaut
     }
 
-    
+    /**
+     * Labyrinthe généré en fond pour un défi donné.
+     */
+    private static class Prefetch {
+        private final int level;
+        private final int challenge;
+        private final CompletableFuture<Maze> future;
+
+        Prefetch(int level, int challenge, CompletableFuture<Maze> future) {
+            this.level = level;
+            this.challenge = challenge;
+            this.future = future;
+        }
+
+        boolean targets(int lvl, int ch) {
+            return level == lvl && challenge == ch;
+        }
+    }
 }
@@ -1,7 +1,8 @@
 package main.java.fr.univlille.iut.sae302.madmaze.model;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Représente le mode Course (Race Mode) du jeu MadMaze.
@@ -23,6 +24,9 @@ import java.util.Random;
 public class RaceMode implements Mode {
     private Maze maze;
     private MazeType mazeType;
+    private SplittableRandom seeds; // graines des labyrinthes si setMaze a reçu une graine, null sinon
+    private PerfectMazeAlgorithm algorithm = PerfectMazeAlgorithm.GROWING_TREE;
+    private PathFinder pathFinder = PathFinder.BFS; // recherche transmise au labyrinthe (le bot suit le champ des distances)
     private int width;
     private int height;
     private int parameter3;
@@ -44,16 +48,7 @@ public class RaceMode implements Mode {
      */
     @Override
     public void prepareMaze() {
-        switch(mazeType) {
-            case RANDOM:
-                // Le paramètre wallPercentage peut être ajusté par l'utilisateur
-                this.maze = new RandomMaze(width, height, parameter3);
-                break;
-            case PERFECT:
-                // Parfait = chemin unique. minLength = longueur min du chemin solution (pour chalenge supplémentaire)
-                this.maze = new PerfectMaze(width, height, parameter3);
-                break;
-        }
+        this.maze = MazeFactory.take(mazeType, width, height, parameter3, algorithm, seeds);
         prepareBotPerfectPath();
     }
 
@@ -75,6 +70,18 @@ public class RaceMode implements Mode {
         this.parameter3 = parameter3;
     }
 
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed) {
+        setMaze(mazeType, width, height, parameter3);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int parameter3, long seed, PerfectMazeAlgorithm algorithm) {
+        setMaze(mazeType, width, height, parameter3, seed);
+        this.algorithm = algorithm;
+    }
+
     /**
      * Retourne le labyrinthe associé à ce mode de jeu.
      *
@@ -104,6 +111,20 @@ public class RaceMode implements Mode {
         return this.mazeType;
     }
 
+    /**
+     * Choisit l'algorithme de recherche transmis au labyrinthe au prochain prepareMaze(), pour les recherches
+     * de chemin entre deux cellules quelconques. Le chemin du bot, lui, suit le champ des distances à la sortie.
+     *
+     * @param pathFinder l'algorithme de recherche de plus court chemin
+     */
+    public void setPathFinder(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+    }
+
+    public PathFinder getPathFinder() {
+        return this.pathFinder;
+    }
+
     /**
      * Retourne le chemin que le bot doit emprunter pour atteindre la sortie.
      * Si le chemin n'a pas pu être calculé, retourne une liste vide.
@@ -119,52 +140,58 @@ public class RaceMode implements Mode {
      * Calcule et prépare le chemin que le bot doit suivre.
      * 
      * Pour les labyrinthes PERFECT : utilise le chemin optimal de l'entrée à la sortie.
-     * Pour les labyrinthes RANDOM : cherche un chemin plus long en partant d'une position
-     *                               aléatoire différente de l'entrée, ce qui crée un défi
-     *                               équitable où le bot n'a pas l'avantage de la position.
+     * Pour les labyrinthes RANDOM : part d'une position aléatoire plus éloignée de la sortie que l'entrée,
+     *                               ce qui crée un défi équitable où le bot n'a pas l'avantage de la position.
+     *                               Les distances de toutes les cases à la sortie viennent d'un seul parcours
+     *                               en largeur depuis la sortie ({@link Maze#distanceToEnd(int, int)}) : le départ
+     *                               est tiré parmi les cases qui conviennent par échantillonnage réservoir, puis
+     *                               le chemin suit les distances décroissantes.
      * 
-     * Si aucun chemin convenable ne peut être trouvé pour les labyrinthes aléatoires,
+     * Si aucune case ne convient pour les labyrinthes aléatoires,
      * on utilise le chemin optimal du départ à la sortie comme fallback.
      */
     private void prepareBotPerfectPath() {
+        maze.setPathFinder(pathFinder);
         if (maze instanceof PerfectMaze) {
             PerfectMaze perfectMaze = (PerfectMaze) maze;
             botPerfectPath = perfectMaze.findOptimalPath(maze.getStart(), maze.getEnd());
             botPerfectPath.add(0, maze.getStart()); // Ajouter la cellule de départ en double au début du chemin pour le mode Perfect
         } else if(maze instanceof RandomMaze) {
             RandomMaze randomMaze = (RandomMaze) maze;
-            Random rand = new Random();
-            int newHeight, newWidth;
-            CellType cellType = null;
-            RandomCell newStart = null;
-            int attempts = 0;
-            do {
-                newHeight = rand.nextInt(height);
-                newWidth = rand.nextInt(width);
-                RandomCell gridCell = randomMaze.getCell(newHeight, newWidth);
-                if (gridCell == null) {
-                    // defensive: skip invalid cell
-                    continue;
-                }
-                cellType = gridCell.getCellType();
-                newStart = new RandomCell(newHeight, newWidth, cellType);
-                try {
-                    botPerfectPath = randomMaze.findOptimalPath(newStart, maze.getEnd());
-                } catch (Exception ex) {
-                    botPerfectPath = new java.util.ArrayList<>();
-                }
-                attempts++;
-            } while ((cellType == null || botPerfectPath == null || botPerfectPath.isEmpty() || botPerfectPath.size()-1 <= maze.optimalPathLength() || randomMaze.isWall(newStart)) && attempts < 2000);
-
-            // Fallback: use the default start->end optimal path if no suitable random start found
-            if (botPerfectPath == null || botPerfectPath.isEmpty()) {
-                try {
-                    botPerfectPath = randomMaze.findOptimalPath(randomMaze.getStart(), randomMaze.getEnd());
-                } catch (Exception ex) {
-                    botPerfectPath = new java.util.ArrayList<>();
+            SplittableRandom rand = MazeFactory.layoutRandom(seeds);
+            int playerLength = maze.optimalPathLength();
+            int botStart = -1;
+            int candidates = 0;
+            for (int row = 0; row < randomMaze.getHeight(); row++) {
+                for (int col = 0; col < randomMaze.getWidth(); col++) {
+                    if (maze.distanceToEnd(row, col) > playerLength && !randomMaze.isWall(row, col)
+                            && rand.nextInt(++candidates) == 0) {
+                        botStart = row * randomMaze.getWidth() + col;
+                    }
                 }
             }
+
+            if (botStart >= 0) {
+                botPerfectPath = pathToEnd(botStart / randomMaze.getWidth(), botStart % randomMaze.getWidth());
+            } else {
+                // Fallback: use the default start->end optimal path if no suitable random start found
+                botPerfectPath = randomMaze.findOptimalPath(randomMaze.getStart(), randomMaze.getEnd());
+            }
+        }
+    }
+
+    /**
+     * Construit un plus court chemin de la cellule (row, col) à la sortie en suivant les distances décroissantes.
+     */
+    private List<Cell> pathToEnd(int row, int col) {
+        List<Cell> path = new ArrayList<>(maze.distanceToEnd(row, col) + 1);
+        path.add(maze.getCell(row, col));
+        for (Direction d = maze.nextStepToEnd(row, col); d != null; d = maze.nextStepToEnd(row, col)) {
+            row += d.getDy();
+            col += d.getDx();
+            path.add(maze.getCell(row, col));
         }
+        return path;
     }
 
     /**
@@ -3,6 +3,7 @@ package main.java.fr.univlille.iut.sae302.madmaze.model;
 /**
  * Représente une cellule dans le labyrinthe avec une position (x, y) et un type.
  * Chaque cellule peut être un chemin, un mur ou contenir le joueur.
+ * Une cellule obtenue depuis un {@link RandomMaze} est une vue : son type est stocké dans le labyrinthe.
  * 
  * @author G4
  */
@@ -10,6 +11,7 @@ public class RandomCell implements Cell {
     protected int col;
     protected int row;
     protected CellType cellType;
+    private final RandomMaze maze; // null pour une cellule autonome
 
     /**
      * Construit une cellule à la position spécifiée avec un type PATH par défaut.
@@ -22,6 +24,7 @@ public class RandomCell implements Cell {
         this.col = col;
         this.row = row;
         this.cellType = CellType.PATH;
+        this.maze = null;
     }
 
     /**
@@ -36,6 +39,16 @@ public class RandomCell implements Cell {
         this.col = col;
         this.row = row;
         this.cellType = celltype;
+        this.maze = null;
+    }
+
+    /**
+     * Construit une vue sur la cellule (row, col) du labyrinthe donné.
+     */
+    RandomCell(RandomMaze maze, int row, int col) {
+        this.col = col;
+        this.row = row;
+        this.maze = maze;
     }
 
     /**
@@ -62,7 +75,15 @@ public class RandomCell implements Cell {
      * @return le type de la cellule (PATH, WALL ou PLAYER)
      */
     public CellType getCellType() {
-        return this.cellType;
+        return maze != null ? maze.getCellType(row, col) : this.cellType;
+    }
+
+    private void setCellType(CellType cellType) {
+        if (maze != null) {
+            maze.setCellType(row, col, cellType);
+        } else {
+            this.cellType = cellType;
+        }
     }
 
     /**
@@ -72,7 +93,7 @@ public class RandomCell implements Cell {
      */
     @Override
     public boolean isWall() {
-        return this.cellType == CellType.WALL;
+        return getCellType() == CellType.WALL;
     }
 
     /**
@@ -81,7 +102,7 @@ public class RandomCell implements Cell {
      */
     @Override
     public boolean isFuel() {
-        return this.cellType == CellType.FUEL;
+        return getCellType() == CellType.FUEL;
     }
 
     /**
@@ -89,7 +110,7 @@ public class RandomCell implements Cell {
      * Change le type de la cellule en SAND.
      */
     public void setSand() {
-        this.cellType = CellType.SAND;
+        setCellType(CellType.SAND);
     }
 
     /**
@@ -98,7 +119,7 @@ public class RandomCell implements Cell {
      * @return true si la cellule est de type SAND, false sinon
      */
     public boolean isSand() {
-        return this.cellType == CellType.SAND;
+        return getCellType() == CellType.SAND;
     }
 
 
@@ -107,7 +128,7 @@ public class RandomCell implements Cell {
      * Change le type de la cellule en FUEL.
      */
     public void setFuel() {
-        this.cellType = CellType.FUEL;
+        setCellType(CellType.FUEL);
     }
 
     /**
@@ -115,7 +136,7 @@ public class RandomCell implements Cell {
      * Change le type de la cellule en WALL.
      */
     public void setWall() {
-        this.cellType = CellType.WALL;
+        setCellType(CellType.WALL);
     }
 
     /**
@@ -123,7 +144,7 @@ public class RandomCell implements Cell {
      * Change le type de la cellule en PATH.
      */
     public void setPath() {
-        this.cellType = CellType.PATH;
+        setCellType(CellType.PATH);
     }
 
     /**
@@ -133,7 +154,7 @@ public class RandomCell implements Cell {
      */
     @Override
     public String toString() {
-        return "Cell(" + this.col + ", " + this.row + ", status=" + this.cellType + ")";
+        return "Cell(" + this.col + ", " + this.row + ", status=" + getCellType() + ")";
     }
 
     /**
@@ -163,6 +184,6 @@ public class RandomCell implements Cell {
 
     @Override
     public boolean isPath() {
-        return this.cellType == CellType.PATH;
+        return getCellType() == CellType.PATH;
     }
 }
@@ -1,26 +1,40 @@
 package main.java.fr.univlille.iut.sae302.madmaze.model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Représente un labyrinthe composé d'une grille de cellules avec une entrée et une sortie.
  * Le labyrinthe peut être généré aléatoirement avec un pourcentage de murs configurable
  * et garantit l'existence d'un chemin entre l'entrée et la sortie.
+ *
+ * Le type de chaque cellule est stocké dans un tableau d'octets dense indexé par
+ * {@code row * width + col}. Les {@link RandomCell} renvoyées par {@link #getCell(int, int)}
+ * sont des vues légères créées à la demande, qui lisent et écrivent dans ce tableau.
  * @author G4
  */
 public class RandomMaze implements Maze {
+    private static final CellType[] CELL_TYPES = CellType.values();
+    static final byte WALL = (byte) CellType.WALL.ordinal();
+    private static final byte PATH = (byte) CellType.PATH.ordinal();
+
     protected RandomCell start;
     protected RandomCell end;
     protected int width;
     protected int height;
-    protected RandomCell[][] grid;
+    protected byte[] cells;
     protected int wallPercentage;
+    protected RandomMazeAlgorithm algorithm;
+    protected RandomGenerator random;
+    private PathFinder pathFinder = PathFinder.BFS;
+    private SearchWorkspace workspace; // tampons du parcours en largeur, créés au premier parcours
+    private GenerationTask<?> generation; // tâche qui suit la génération en cours, null hors génération asynchrone
+    private int modCount; // incrémenté à chaque changement des murs ou de la sortie
+    private int[] distances; // distances à la sortie, valides tant que distancesModCount == modCount
+    private int distancesModCount;
 
     /**
      * Construit un labyrinthe avec des dimensions et un pourcentage de murs spécifiés.
@@ -31,6 +45,59 @@ public class RandomMaze implements Maze {
      * @param wallPercentage le pourcentage de murs dans le labyrinthe (entre 0 et 100)
      */
     public RandomMaze(int width, int height, int wallPercentage) {
+        this(width, height, wallPercentage, RandomMazeAlgorithm.UNION_FIND);
+    }
+
+    /**
+     * Construit un labyrinthe dont la génération est entièrement déterminée par le générateur fourni :
+     * deux labyrinthes construits avec des générateurs de même graine sont identiques.
+     * 
+     * @param width la largeur du labyrinthe en nombre de cellules
+     * @param height la hauteur du labyrinthe en nombre de cellules
+     * @param wallPercentage le pourcentage de murs dans le labyrinthe (entre 0 et 100)
+     * @param random le générateur aléatoire utilisé par la génération
+     */
+    public RandomMaze(int width, int height, int wallPercentage, RandomGenerator random) {
+        this(width, height, wallPercentage, RandomMazeAlgorithm.UNION_FIND, random);
+    }
+
+    /**
+     * Construit un labyrinthe avec des dimensions, un pourcentage de murs et un algorithme de génération spécifiés.
+     * 
+     * @param width la largeur du labyrinthe en nombre de cellules
+     * @param height la hauteur du labyrinthe en nombre de cellules
+     * @param wallPercentage le pourcentage de murs dans le labyrinthe (entre 0 et 100)
+     * @param algorithm l'algorithme de génération à utiliser
+     */
+    public RandomMaze(int width, int height, int wallPercentage, RandomMazeAlgorithm algorithm) {
+        this(width, height, wallPercentage, algorithm, new SplittableRandom());
+    }
+
+    /**
+     * Construit un labyrinthe avec un algorithme de génération et un générateur aléatoire spécifiés.
+     * 
+     * @param width la largeur du labyrinthe en nombre de cellules
+     * @param height la hauteur du labyrinthe en nombre de cellules
+     * @param wallPercentage le pourcentage de murs dans le labyrinthe (entre 0 et 100)
+     * @param algorithm l'algorithme de génération à utiliser
+     * @param random le générateur aléatoire utilisé par la génération
+     */
+    public RandomMaze(int width, int height, int wallPercentage, RandomMazeAlgorithm algorithm, RandomGenerator random) {
+        this(width, height, wallPercentage, algorithm, random, PathFinder.BFS);
+    }
+
+    /**
+     * Construit un labyrinthe en choisissant aussi l'algorithme de recherche de chemin, utilisé dès la génération
+     * pour vérifier que l'entrée et la sortie sont reliées.
+     * 
+     * @param width la largeur du labyrinthe en nombre de cellules
+     * @param height la hauteur du labyrinthe en nombre de cellules
+     * @param wallPercentage le pourcentage de murs dans le labyrinthe (entre 0 et 100)
+     * @param algorithm l'algorithme de génération à utiliser
+     * @param random le générateur aléatoire utilisé par la génération
+     * @param pathFinder l'algorithme de recherche de plus court chemin
+     */
+    public RandomMaze(int width, int height, int wallPercentage, RandomMazeAlgorithm algorithm, RandomGenerator random, PathFinder pathFinder) {
         if (width <= 0 || height <= 0)
             throw new IllegalArgumentException("Largeur et hauteur doivent être > 0");
         if (wallPercentage < 0 || wallPercentage > 100)
@@ -38,14 +105,19 @@ public class RandomMaze implements Maze {
         this.width = width;
         this.height = height;
         this.wallPercentage = wallPercentage;
-        this.grid = new RandomCell[height][width];
+        this.algorithm = algorithm;
+        this.random = random;
+        this.pathFinder = pathFinder;
+        this.cells = new byte[width * height];
 
+        this.generation = GenerationTask.current();
         generateMaze();
+        this.generation = null;
     }
 
     /**
-     * Trouve le chemin optimal entre deux cellules en utilisant l'algorithme BFS (parcours en largeur).
-     * Cette méthode garantit de trouver le chemin le plus court s'il existe.
+     * Trouve le chemin optimal entre deux cellules avec l'algorithme de recherche choisi (BFS par défaut,
+     * voir {@link #setPathFinder(PathFinder)}). Cette méthode garantit de trouver le chemin le plus court s'il existe.
      * 
      * @param startCell la cellule de départ
      * @param endCell la cellule d'arrivée
@@ -56,6 +128,10 @@ public class RandomMaze implements Maze {
         RandomCell start = (RandomCell) startCell;
         RandomCell end = (RandomCell) endCell;
 
+        if (!isValidPosition(start.getRow(), start.getCol()) || !isValidPosition(end.getRow(), end.getCol())) {
+            return new ArrayList<>();
+        }
+
         // Cas spécial où le départ et l'arrivée sont identiques
         if (start.equals(end)) {
             List<Cell> path = new ArrayList<>();
@@ -63,42 +139,181 @@ public class RandomMaze implements Maze {
             return path;
         }
 
-        // Initialisation de la structure de données pour BFS
-        Queue<RandomCell> queue = new LinkedList<>();
-        Map<RandomCell, RandomCell> parentMap = new HashMap<>();
-        boolean[][] visited = new boolean[height][width];
+        int startId = start.getRow() * width + start.getCol();
+        int endId = end.getRow() * width + end.getCol();
+        if (usesDistanceField(endId)) {
+            int length = distanceToEnd(start.getRow(), start.getCol());
+            return length < 0 ? new ArrayList<>() : descendDistanceField(startId, length);
+        }
+        if (!search(startId, endId)) {
+            return new ArrayList<>();
+        }
+        return reconstructPath(startId, endId);
+    }
 
-        queue.offer(start);
-        visited[start.getRow()][start.getCol()] = true;
-        parentMap.put(start, null);
+    /**
+     * Les plus courts chemins vers la sortie sont lus dans le champ des distances, sauf si une recherche guidée
+     * ou bidirectionnelle a été choisie explicitement.
+     */
+    private boolean usesDistanceField(int endId) {
+        return pathFinder == PathFinder.BFS && end != null && endId == end.getRow() * width + end.getCol();
+    }
 
-        // Parcours en largeur
-        while (!queue.isEmpty()) {
-            RandomCell current = queue.poll();
+    /**
+     * Retourne le champ des distances à la sortie, recalculé par un parcours en largeur depuis la sortie
+     * si les murs ou la sortie ont changé depuis le dernier calcul. On ne peut pas entrer dans un mur :
+     * les murs valent -1 (voir {@link #distanceToEnd(int, int)} pour une entrée murée).
+     */
+    private int[] distanceField() {
+        if (distances != null && distancesModCount == modCount) return distances;
+        int n = width * height;
+        if (distances == null || distances.length != n) distances = new int[n];
+        fillDistances(distances, end.getRow() * width + end.getCol());
+        distancesModCount = modCount;
+        return distances;
+    }
 
-            if (current.equals(end)) {
-                return reconstructPath(parentMap, end);
-            }
-            
-            // 
-            for (RandomCell neighbor : neighbors(current.getRow(), current.getCol())) {
-                int nRow = neighbor.getRow();
-                int nCol = neighbor.getCol();
-
-                if (nRow < 0 || nRow >= height || nCol < 0 || nCol >= width) {
-                    System.err.println("ERREUR: Voisin invalide détecté row=" + nRow + " col=" + nCol);
-                    continue;
-                }
+    /**
+     * @return les distances à la cellule {@code targetId} : le champ en cache pour la sortie, un nouveau tableau sinon
+     */
+    private int[] distancesTo(int targetId) {
+        if (end != null && targetId == end.getRow() * width + end.getCol()) return distanceField();
+        int[] dist = new int[width * height];
+        fillDistances(dist, targetId);
+        return dist;
+    }
 
-                if (!visited[nRow][nCol]) {
-                    queue.offer(neighbor);
-                    parentMap.put(neighbor, current);
-                    visited[nRow][nCol] = true;
-                }
+    /**
+     * Parcours en largeur depuis {@code targetId} : chaque case reçoit le nombre de déplacements qui la séparent
+     * de la cible, -1 si elle ne l'atteint pas.
+     */
+    private void fillDistances(int[] dist, int targetId) {
+        Arrays.fill(dist, -1);
+        if (workspace == null) workspace = new SearchWorkspace();
+        SearchWorkspace ws = workspace;
+        ws.reset(dist.length);
+
+        dist[targetId] = 0;
+        if (cells[targetId] != WALL) ws.visit(targetId, targetId);
+        while (!ws.isEmpty()) {
+            int cur = ws.poll();
+            int open = openDirections(cur);
+            while (open != 0) {
+                int next = step(cur, Integer.numberOfTrailingZeros(open));
+                open &= open - 1;
+                if (ws.visit(next, cur)) dist[next] = dist[cur] + 1;
             }
         }
+    }
 
-        return new ArrayList<>();
+    /**
+     * Construit un plus court chemin vers la sortie en passant à chaque pas sur une voisine plus proche d'une case.
+     *
+     * @param startId la cellule de départ
+     * @param length sa distance à la sortie
+     */
+    private List<Cell> descendDistanceField(int startId, int length) {
+        int[] dist = distances;
+        Cell[] path = new Cell[length + 1];
+        int cur = startId;
+        for (int i = 0; i < length; i++) {
+            path[i] = getCell(cur / width, cur % width);
+            int open = openDirections(cur);
+            int next;
+            do {
+                next = step(cur, Integer.numberOfTrailingZeros(open));
+                open &= open - 1;
+            } while (dist[next] != length - i - 1);
+            cur = next;
+        }
+        path[length] = getCell(cur / width, cur % width);
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    @Override
+    public int distanceToEnd(int row, int col) {
+        if (end == null || !isValidPosition(row, col)) return -1;
+        int[] dist = distanceField();
+        int id = row * width + col;
+        if (cells[id] != WALL || dist[id] == 0) return dist[id];
+
+        // Une entrée murée se quitte comme une autre case : une de plus que sa voisine la plus proche
+        int best = -1;
+        int open = openDirections(id);
+        while (open != 0) {
+            int d = dist[step(id, Integer.numberOfTrailingZeros(open))];
+            open &= open - 1;
+            if (d >= 0 && (best < 0 || d + 1 < best)) best = d + 1;
+        }
+        return best;
+    }
+
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Recherche de {@code startId} vers {@code endId} dans l'espace de travail du labyrinthe.
+     * Une fois l'espace dimensionné, une recherche n'alloue rien ; les parents restent lisibles jusqu'à la suivante.
+     *
+     * @return true si {@code endId} est atteignable
+     */
+    private boolean search(int startId, int endId) {
+        if (workspace == null) workspace = new SearchWorkspace();
+        return pathFinder.search(this, startId, endId, workspace);
+    }
+
+    /**
+     * Indique si deux cellules sont reliées, par un parcours en largeur bidirectionnel qui s'arrête
+     * dès que les deux frontières se touchent, sans construire de chemin.
+     *
+     * @return true si un chemin mène de {@code from} à {@code to}
+     */
+    @Override
+    public boolean isConnected(Cell from, Cell to) {
+        if (!isValidPosition(from.getRow(), from.getCol()) || !isValidPosition(to.getRow(), to.getCol())) {
+            return false;
+        }
+        return connected(from.getRow() * width + from.getCol(), to.getRow() * width + to.getCol());
+    }
+
+    /**
+     * Test de connexité utilisé par la génération : parcours bidirectionnel, sauf si une recherche guidée
+     * (A*, JPS) a été choisie.
+     */
+    private boolean connected(int startId, int endId) {
+        if (workspace == null) workspace = new SearchWorkspace();
+        if (pathFinder == PathFinder.A_STAR || pathFinder == PathFinder.JUMP_POINT) {
+            return pathFinder.search(this, startId, endId, workspace);
+        }
+        return PathFinder.bidirectional(this, startId, endId, workspace, false);
+    }
+
+    @Override
+    public void setPathFinder(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+    }
+
+    @Override
+    public PathFinder getPathFinder() {
+        return this.pathFinder;
+    }
+
+    /**
+     * @return le nombre de cellules développées par la dernière recherche de chemin
+     */
+    public int getExpandedNodes() {
+        return workspace == null ? 0 : workspace.getExpanded();
+    }
+
+    /**
+     * Libère les tampons de recherche (espace de travail, champ des distances), recréés à la prochaine recherche :
+     * un labyrinthe qui attend en stock ne garde que sa grille, à 1 octet par cellule.
+     */
+    void releaseSearchBuffers() {
+        workspace = null;
+        distances = null;
     }
 
     /**
@@ -108,114 +323,217 @@ public class RandomMaze implements Maze {
      */
     @Override
     public int optimalPathLength() {
-        List<Cell> chemin = findOptimalPath(this.start, this.end);
-        if (chemin.isEmpty()) return -1; // Aucun chemin possible
-        return chemin.size() - 1; // nb d'arêtes, pas nb de sommets
+        if (pathFinder == PathFinder.BFS) return distanceToEnd(start.getRow(), start.getCol());
+        return searchedPathLength();
+    }
+
+    /**
+     * Longueur du plus court chemin de l'entrée à la sortie par une recherche, sans passer par le champ des distances.
+     */
+    private int searchedPathLength() {
+        int startId = start.getRow() * width + start.getCol();
+        int endId = end.getRow() * width + end.getCol();
+        if (!search(startId, endId)) return -1; // Aucun chemin possible
+
+        // nb d'arêtes, compté en remontant les parents sans construire le chemin
+        int length = 0;
+        for (int cur = endId; cur != startId; cur = workspace.parent(cur)) {
+            length += distance(cur, workspace.parent(cur));
+        }
+        return length;
     }
 
     /**
-     * Trouve un chemin plus long que le chemin optimal en explorant des chemins alternatifs.
-     * La stratégie consiste à faire intentionnellement des détours en priorité aux voisins
-     * qui ne mènent pas directement au chemin optimal.
+     * Trouve un chemin plus long que le chemin optimal : un chemin simple d'au moins deux déplacements de plus
+     * (sur une grille, deux chemins entre les mêmes cellules ont des longueurs de même parité).
+     * Voir {@link #findPathOfLength(Cell, Cell, int, int, RandomGenerator)}.
      * 
      * @param startCell la cellule de départ
      * @param endCell la cellule d'arrivée
-     * @return une liste de cellules représentant un chemin plus long, ou null si aucun chemin plus long n'existe
+     * @return une liste de cellules représentant un chemin plus long, ou null si aucun chemin plus long n'a été trouvé
      */
     public List<Cell> findLongerPath(Cell startCell, Cell endCell) {
-        // Récupère d'abord le chemin optimal pour connaître sa longueur
         if (startCell == null || endCell == null) return null;
-
-        RandomCell start = (RandomCell) startCell;
-        RandomCell end = (RandomCell) endCell;
-
-        // Validate positions are inside this maze
-        if (!isValidPosition(start.getRow(), start.getCol()) || !isValidPosition(end.getRow(), end.getCol())) {
+        if (!isValidPosition(startCell.getRow(), startCell.getCol()) || !isValidPosition(endCell.getRow(), endCell.getCol())) {
             return null;
         }
+        int optimal = distancesTo(endCell.getRow() * width + endCell.getCol())[startCell.getRow() * width + startCell.getCol()];
+        if (optimal < 0) return null; // Aucun chemin ne peut exister
+        return findPathOfLength(startCell, endCell, optimal + 1, width * height, random);
+    }
 
-        List<Cell> optimalPath = findOptimalPath(startCell, endCell);
-        if (optimalPath == null || optimalPath.isEmpty()) {
-            return null; // Aucun chemin ne peut exister
+    /**
+     * Cherche un chemin simple dont le nombre de déplacements est compris entre {@code minLength} et {@code maxLength}.
+     * On part d'un plus court chemin, lu dans le champ des distances, puis on l'allonge par détours successifs :
+     * un pas du chemin, tiré au hasard, est remplacé par le plus court contournement qui passe par des cases libres
+     * hors du chemin, trouvé par un petit parcours en largeur local (256 cases au plus). Chaque détour réussi ajoute
+     * un nombre pair de déplacements ; on s'arrête dès que {@code minLength} est atteint. Le travail est borné
+     * (32 cases visitées par cellule de la grille) : la méthode peut échouer sur une plage atteignable mais difficile.
+     *
+     * @param startCell la cellule de départ (pas un mur)
+     * @param endCell la cellule d'arrivée
+     * @param minLength le nombre minimal de déplacements
+     * @param maxLength le nombre maximal de déplacements
+     * @param random le générateur qui choisit les pas à contourner
+     * @return le chemin, de l'entrée à l'arrivée, ou null si aucun n'a été trouvé
+     */
+    public List<Cell> findPathOfLength(Cell startCell, Cell endCell, int minLength, int maxLength, RandomGenerator random) {
+        if (startCell == null || endCell == null) return null;
+        if (!isValidPosition(startCell.getRow(), startCell.getCol()) || !isValidPosition(endCell.getRow(), endCell.getCol())) {
+            return null;
+        }
+        int n = width * height;
+        int startId = startCell.getRow() * width + startCell.getCol();
+        int endId = endCell.getRow() * width + endCell.getCol();
+        if (cells[startId] == WALL || minLength > maxLength) return null;
+        int[] dist = distancesTo(endId);
+        int length = dist[startId];
+        if (length < 0 || length > maxLength) return null;
+
+        // Plus court chemin initial, en liste chaînée : next[id] est la case suivante, -1 hors du chemin
+        int[] next = new int[n];
+        Arrays.fill(next, -1);
+        boolean[] onPath = new boolean[n];
+        int[] work = new int[Math.max(16, 2 * length)]; // cases dont le pas suivant reste à contourner
+        int pending = 0;
+        onPath[startId] = true;
+        for (int cur = startId; cur != endId; ) {
+            int open = openDirections(cur);
+            int step;
+            do {
+                step = step(cur, Integer.numberOfTrailingZeros(open));
+                open &= open - 1;
+            } while (dist[step] != dist[cur] - 1);
+            next[cur] = step;
+            onPath[step] = true;
+            work[pending++] = cur;
+            cur = step;
         }
 
-        int optimalLength = optimalPath.size();
-
-        // Parcours en profondeur avec limite pour trouver un chemin plus long
-        List<RandomCell> longerPath = new ArrayList<>();
-        boolean[][] visited = new boolean[height][width];
-        
-        // Cherche un chemin plus long par DFS avec une limite raisonnable
-        if (depthFirstSearchForLonger(start, end, longerPath, visited, optimalLength)) {
-            List<Cell> result = new ArrayList<>(longerPath);
-            return result;
+        if (workspace == null) workspace = new SearchWorkspace();
+        SearchWorkspace ws = workspace;
+        long budget = 32L * n;
+        while (length < minLength && pending > 0 && budget > 0) {
+            int k = random.nextInt(pending);
+            int a = work[k];
+            work[k] = work[--pending];
+            int b = next[a];
+
+            // Plus court contournement de a vers b par des cases libres hors du chemin
+            ws.reset(n);
+            int last = -1;
+            int open = openDirections(a);
+            while (open != 0) {
+                int c = step(a, Integer.numberOfTrailingZeros(open));
+                open &= open - 1;
+                if (!onPath[c]) ws.visit(c, a);
+            }
+            for (int explored = 0; last < 0 && !ws.isEmpty() && explored < 256; explored++) {
+                int cur = ws.poll();
+                open = openDirections(cur);
+                while (open != 0) {
+                    int c = step(cur, Integer.numberOfTrailingZeros(open));
+                    open &= open - 1;
+                    if (c == b) {
+                        last = cur;
+                        break;
+                    }
+                    if (!onPath[c]) ws.visit(c, cur);
+                }
+            }
+            budget -= ws.getExpanded();
+            if (last < 0) continue;
+
+            int added = 0; // cases du détour : un pas remplacé par added + 1
+            for (int c = last; c != a; c = ws.parent(c)) added++;
+            if (length + added > maxLength) continue;
+
+            // Greffe du détour entre a et b ; ses pas pourront être contournés à leur tour
+            if (pending + added + 1 > work.length) work = Arrays.copyOf(work, 2 * (pending + added + 1));
+            int after = b;
+            for (int c = last; c != a; c = ws.parent(c)) {
+                next[c] = after;
+                onPath[c] = true;
+                work[pending++] = c;
+                after = c;
+            }
+            next[a] = after;
+            work[pending++] = a;
+            length += added;
         }
+        if (length < minLength) return null;
 
-        return null; // Aucun chemin plus long trouvé
+        List<Cell> path = new ArrayList<>(length + 1);
+        for (int cur = startId; cur != -1; cur = next[cur]) path.add(getCell(cur / width, cur % width));
+        return path;
     }
 
     /**
-     * Parcours en profondeur pour trouver un chemin plus long que le chemin optimal.
-     * Utilise une limite d'appels récursifs pour éviter les boucles infinies.
+     * Reconstruit le chemin complet à partir des parents laissés par la dernière recherche.
+     * Un parent est une cellule voisine, ou un point de saut aligné pour {@link PathFinder#JUMP_POINT} :
+     * les cellules intermédiaires sont alors recomposées en ligne droite.
      * 
-     * @param current cellule courante
-     * @param end cellule de sortie cible
-     * @param path chemin en construction
-     * @param visited matrice de visite
-     * @param minRequiredLength longueur minimale que le chemin doit dépasser
-     * @return true si un chemin plus long a été trouvé, false sinon
-     */
-    private boolean depthFirstSearchForLonger(RandomCell current, RandomCell end, 
-                                               List<RandomCell> path, boolean[][] visited, 
-                                               int minRequiredLength) {
-        // Limite de profondeur pour éviter trop de détours
-        int maxDepth = (height * width) / 2 + minRequiredLength;
-        if (path.size() > maxDepth) {
-            return false;
-        }
-
-        path.add(current);
-        visited[current.getRow()][current.getCol()] = true;
-
-        // Vérifie si nous avons atteint la fin avec un chemin suffisamment long
-        if (current.equals(end) && path.size() > minRequiredLength) {
-            return true;
+     * @param startId l'identifiant de la cellule de départ
+     * @param endId l'identifiant de la cellule de destination
+     * @return la liste ordonnée des cellules formant le chemin de l'entrée à la sortie
+     */
+    private List<Cell> reconstructPath(int startId, int endId) {
+        SearchWorkspace ws = workspace;
+        int length = 1;
+        for (int cur = endId; cur != startId; cur = ws.parent(cur)) {
+            length += distance(cur, ws.parent(cur));
         }
-
-        // Explore les voisins
-        List<RandomCell> neighbors = neighbors(current.getRow(), current.getCol());
-        
-        // Trie les voisins pour prioritiser les chemins moins directs
-        for (RandomCell neighbor : neighbors) {
-            int nRow = neighbor.getRow();
-            int nCol = neighbor.getCol();
-
-            if (!visited[nRow][nCol]) {
-                if (depthFirstSearchForLonger(neighbor, end, path, visited, minRequiredLength)) {
-                    return true;
-                }
+        Cell[] path = new Cell[length];
+        int i = length - 1;
+        for (int cur = endId; cur != startId; cur = ws.parent(cur)) {
+            int parent = ws.parent(cur);
+            int stepId = Integer.signum(parent / width - cur / width) * width + Integer.signum(parent % width - cur % width);
+            for (int id = cur; id != parent; id += stepId) {
+                path[i--] = getCell(id / width, id % width);
             }
         }
+        path[0] = getCell(startId / width, startId % width);
+        return new ArrayList<>(Arrays.asList(path));
+    }
 
-        // Backtrack
-        path.remove(path.size() - 1);
-        visited[current.getRow()][current.getCol()] = false;
-        return false;
+    /**
+     * @return la distance de Manhattan entre deux cellules
+     */
+    private int distance(int id1, int id2) {
+        return Math.abs(id1 / width - id2 / width) + Math.abs(id1 % width - id2 % width);
+    }
+
+    @Override
+    public int openDirections(int row, int col) {
+        if (!isValidPosition(row, col) || cells[row * width + col] == WALL) return 0;
+        return openDirections(row * width + col);
     }
 
     /**
-     * Reconstruit le chemin complet à partir de la carte des parents générée par l'algorithme BFS.
-     * 
-     * @param parentMap la map associant chaque cellule à son parent dans le chemin
-     * @param end la cellule de destination
-     * @return la liste ordonnée des cellules formant le chemin de l'entrée à la sortie
+     * @param id l'identifiant d'une cellule
+     * @return un masque des directions (bit {@code 1 << direction.ordinal()}) menant à une cellule qui n'est pas un mur
      */
-    private List<Cell> reconstructPath(Map<RandomCell, RandomCell> parentMap, RandomCell end) {
-        List<Cell> path = new ArrayList<>();
-        for (RandomCell curr = end; curr != null; curr = parentMap.get(curr)) {
-            path.add(0, curr);
+    int openDirections(int id) {
+        int row = id / width;
+        int col = id - row * width;
+        int mask = 0;
+        if (row > 0 && cells[id - width] != WALL) mask |= 1;               // Z (haut)
+        if (col > 0 && cells[id - 1] != WALL) mask |= 1 << 1;              // Q (gauche)
+        if (row < height - 1 && cells[id + width] != WALL) mask |= 1 << 2; // S (bas)
+        if (col < width - 1 && cells[id + 1] != WALL) mask |= 1 << 3;      // D (droite)
+        return mask;
+    }
+
+    /**
+     * @return l'identifiant de la cellule voisine de {@code id} dans la direction d'indice {@code direction}
+     */
+    int step(int id, int direction) {
+        switch (direction) {
+            case 0: return id - width;
+            case 1: return id - 1;
+            case 2: return id + width;
+            default: return id + 1;
         }
-        return path;
     }
 
     /**
@@ -226,11 +544,9 @@ public class RandomMaze implements Maze {
      * @return true si la cellule est un mur ou hors limites, false sinon
      */
     public boolean isWall(Cell cell) {
-        if (cell instanceof RandomCell) {
-            RandomCell rc = (RandomCell) cell;
-            return rc.isWall();
-        }
-        return false;
+        if (cell == null) return false;
+        if (!isValidPosition(cell.getRow(), cell.getCol())) return true;
+        return cells[cell.getRow() * width + cell.getCol()] == WALL;
     }
 
     /**
@@ -240,7 +556,7 @@ public class RandomMaze implements Maze {
      * @return true si la cellule est un mur ou hors limites, false sinon
      */
     public boolean isWall(int row, int col) {
-        return isValidPosition(row, col) && grid[row][col] != null && grid[row][col].isWall();
+        return isValidPosition(row, col) && cells[row * width + col] == WALL;
     }
         
     /**
@@ -249,34 +565,24 @@ public class RandomMaze implements Maze {
      * Ouvre au minimum une case adjacente à l'entrée et à la sortie.
      */
     public void generate() {
-        Random rand = new Random();
-    
-        // Initialisation de la grille avec seulement des chemins
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                grid[i][j] = new RandomCell(i, j);
-            }
-        }
+        // Initialisation de la grille avec seulement des chemins (sans réallouer les cellules)
+        Arrays.fill(cells, PATH);
     
         // Placement de l'entrée et de la sortie
         //ensureStartEndOpposite();
-        ensureStartEndOpposite(rand);
+        ensureStartEndOpposite(random);
     
-        // Placement aléatoire des murs, en évitant l'entrée et la sortie
-        int nbMurs = Math.round(width * height * wallPercentage / 100f);
-        int mursPlaces = 0;
-    
-        while (mursPlaces < nbMurs) {
-            int x = rand.nextInt(width);
-            int y = rand.nextInt(height);
-        
-            if (!(x == start.getCol() && y == start.getRow()) && 
-                !(x == end.getCol() && y == end.getRow()) && 
-                !grid[y][x].isWall()) {
-            
-                grid[y][x].setWall();
-                mursPlaces++;
-            }
+        // Placement aléatoire des murs, en évitant l'entrée et la sortie :
+        // mélange de Fisher–Yates partiel, nbMurs tirages exactement quelle que soit la densité
+        int[] order = otherCells();
+        int others = order.length;
+        int nbMurs = Math.min(Math.round(width * height * wallPercentage / 100f), others);
+        for (int i = 0; i < nbMurs; i++) {
+            int j = i + random.nextInt(others - i);
+            int id = order[j];
+            order[j] = order[i];
+            order[i] = id;
+            cells[id] = WALL;
         }
 
         // Ouvre au moins une case adjacente à l'entrée et à la sortie
@@ -284,6 +590,117 @@ public class RandomMaze implements Maze {
 
         // Ouvre une case autour de la sortie
         openNeighborPath(end, start);
+        modCount++;
+    }
+
+    /**
+     * Génère le labyrinthe en une seule passe, sans régénération.
+     * Un union-find ne sait pas défaire une union : plutôt que de poser les murs un à un en refusant ceux qui
+     * couperaient l'entrée de la sortie, on part d'une grille pleine et on ouvre les cases dans un ordre aléatoire
+     * en fusionnant chaque case ouverte avec ses voisines ouvertes. Dès que l'entrée et la sortie sont dans le même
+     * ensemble, les cases encore fermées peuvent devenir des murs sans casser le chemin.
+     * Si la connexion a demandé plus d'ouvertures que le pourcentage de murs ne le permet, seul le plus court chemin
+     * est conservé et le reste des ouvertures est retiré au hasard : le nombre de murs demandé est atteint
+     * dès qu'il laisse la place à un chemin.
+     */
+    private void generateWithUnionFind() {
+        int n = width * height;
+
+        Arrays.fill(cells, WALL);
+        ensureStartEndOpposite(random);
+        int startId = start.getRow() * width + start.getCol();
+        int endId = end.getRow() * width + end.getCol();
+
+        // Ordre aléatoire d'ouverture des autres cases (mélange de Fisher–Yates)
+        int[] order = otherCells();
+        int others = order.length;
+        for (int i = others - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        int nbMurs = Math.min(Math.round(n * wallPercentage / 100f), others);
+        int toOpen = others - nbMurs;
+        if (generation != null) generation.begin(toOpen, wallPercentage);
+
+        int[] parent = new int[n];
+        for (int id = 0; id < n; id++) parent[id] = id;
+        union(parent, startId);
+        union(parent, endId);
+
+        int opened = 0;
+        while (find(parent, startId) != find(parent, endId)) {
+            cells[order[opened]] = PATH;
+            union(parent, order[opened++]);
+            if (generation != null) generation.carved(1);
+        }
+
+        if (opened > toOpen) {
+            // Trop d'ouvertures : on ne garde que le plus court chemin, puis on complète au hasard
+            modCount++;
+            List<Cell> path = findOptimalPath(start, end);
+            for (int i = 0; i < opened; i++) cells[order[i]] = WALL;
+            for (Cell c : path) cells[c.getRow() * width + c.getCol()] = PATH;
+            int remaining = toOpen - (path.size() - (startId == endId ? 1 : 2));
+            for (int i = 0; remaining > 0 && i < others; i++) {
+                if (cells[order[i]] == WALL) {
+                    cells[order[i]] = PATH;
+                    remaining--;
+                }
+            }
+            if (remaining < 0) {
+                System.out.println("WARNING: " + wallPercentage + "% de murs ne laisse pas de chemin, " + (nbMurs + remaining) + " murs posés");
+            }
+        } else {
+            if (generation != null) generation.carved(toOpen - opened);
+            while (opened < toOpen) cells[order[opened++]] = PATH;
+        }
+        modCount++;
+    }
+
+    /**
+     * Liste les identifiants de toutes les cases sauf l'entrée et la sortie, à mélanger par la génération.
+     * Le tableau est propre à une génération : il n'est pas gardé par le labyrinthe une fois généré.
+     * 
+     * @return les identifiants des autres cases
+     */
+    private int[] otherCells() {
+        int n = width * height;
+        int startId = start.getRow() * width + start.getCol();
+        int endId = end.getRow() * width + end.getCol();
+        int[] order = new int[startId == endId ? n - 1 : n - 2];
+        int others = 0;
+        for (int id = 0; id < n; id++) {
+            if (id != startId && id != endId) order[others++] = id;
+        }
+        return order;
+    }
+
+    /**
+     * Fusionne la case ouverte {@code id} avec ses voisines ouvertes dans l'union-find.
+     */
+    private void union(int[] parent, int id) {
+        int open = openDirections(id);
+        while (open != 0) {
+            int d = Integer.numberOfTrailingZeros(open);
+            open &= open - 1;
+            int a = find(parent, id);
+            int b = find(parent, step(id, d));
+            if (a != b) parent[a] = b;
+        }
+    }
+
+    /**
+     * @return le représentant de l'ensemble de {@code id}, avec compression de chemin par division
+     */
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
     }
 
     /**
@@ -297,11 +714,8 @@ public class RandomMaze implements Maze {
         int[][] directions = {{0,1},{1,0},{0,-1},{-1,0}};
         for (int[] d : directions) {
             int nRow = row + d[0], nCol = col + d[1];
-            if (nRow >= 0 && nRow < height && nCol >= 0 && nCol < width) {
-                RandomCell neighbor = grid[nRow][nCol];
-                if (neighbor != null && !neighbor.isWall()) {
-                    voisins.add(neighbor);
-                }
+            if (nRow >= 0 && nRow < height && nCol >= 0 && nCol < width && cells[nRow * width + nCol] != WALL) {
+                voisins.add(getCell(nRow, nCol));
             }
         }
         return voisins;
@@ -317,23 +731,22 @@ public class RandomMaze implements Maze {
      */
     public void openNeighborPath(RandomCell cell, RandomCell exclude) {
         // Récupérer TOUS les voisins adjacents (même les murs)
-        List<RandomCell> allNeighbors = new ArrayList<>();
+        int[] allNeighbors = new int[4];
+        int count = 0;
         int[][] directions = {{0,1},{1,0},{0,-1},{-1,0}};
         for (int[] d : directions) {
             int nRow = cell.getRow() + d[0];
             int nCol = cell.getCol() + d[1];
-            if (nRow >= 0 && nRow < height && nCol >= 0 && nCol < width) {
-                RandomCell neighbor = grid[nRow][nCol];
-                if (neighbor != null && !neighbor.equals(exclude)) {
-                    allNeighbors.add(neighbor);
-                }
+            if (nRow >= 0 && nRow < height && nCol >= 0 && nCol < width
+                && !(exclude != null && nRow == exclude.getRow() && nCol == exclude.getCol())) {
+                allNeighbors[count++] = nRow * width + nCol;
             }
         }
         
         // Ouvrir (forcer à PATH) un voisin aléatoire parmi ceux disponibles
-        if (!allNeighbors.isEmpty()) {
-            RandomCell open = allNeighbors.get(new Random().nextInt(allNeighbors.size()));
-            open.setPath();  // Force l'ouverture même si c'était un mur
+        if (count > 0) {
+            cells[allNeighbors[random.nextInt(count)]] = PATH;  // Force l'ouverture même si c'était un mur
+            modCount++;
         }
     }
 
@@ -341,25 +754,25 @@ public class RandomMaze implements Maze {
      * Positionne l'entrée et la sortie à deux cases différentes, n'importe où dans la grille.
      */
     public void placeRandomStartEnd() {
-        Random rand = new Random();
-        int startRow = rand.nextInt(height);
-        int startCol = rand.nextInt(width);
+        int startRow = random.nextInt(height);
+        int startCol = random.nextInt(width);
 
         int endRow, endCol;
         do {
-            endRow = rand.nextInt(height);
-            endCol = rand.nextInt(width);
+            endRow = random.nextInt(height);
+            endCol = random.nextInt(width);
         } while (endRow == startRow && endCol == startCol);
 
-        start = grid[startRow][startCol];
-        end = grid[endRow][endCol];
+        start = getCell(startRow, startCol);
+        end = getCell(endRow, endCol);
+        modCount++;
     }
 
     /**
      * Assure que l'entrée et la sortie du labyrinthe sont placées sur des bords opposés.
      * @param random
      */
-    private void ensureStartEndOpposite(Random random) {
+    private void ensureStartEndOpposite(RandomGenerator random) {
         int startSide;
         int sx, sy;
         // Si start déjà défini, calcule son bord :
@@ -382,13 +795,14 @@ public class RandomMaze implements Maze {
         int[] ep = generateBorderPosition(random, endSide);
         int ex = ep[0];
         int ey = ep[1];
-        this.start = new RandomCell(sy, sx, CellType.PATH);
-        this.end = new RandomCell(ey, ex, CellType.PATH);
-        grid[sy][sx] = this.start;
-        grid[ey][ex] = this.end;
+        cells[sy * width + sx] = PATH;
+        cells[ey * width + ex] = PATH;
+        this.start = getCell(sy, sx);
+        this.end = getCell(ey, ex);
+        modCount++;
     }
 
-    private int[] generateBorderPosition(Random random) {
+    private int[] generateBorderPosition(RandomGenerator random) {
         int side = random.nextInt(4);
         return generateBorderPosition(random, side);
     }
@@ -400,7 +814,7 @@ public class RandomMaze implements Maze {
      * @param forcedSide le bord sur lequel générer la position (0=haut, 1=droite, 2=bas, 3=gauche)
      * @return un tableau contenant [x, y, side] représentant la position générée
      */
-    private int[] generateBorderPosition(Random random, int forcedSide) {
+    private int[] generateBorderPosition(RandomGenerator random, int forcedSide) {
         int x, y;
 
         switch (forcedSide) {
@@ -429,18 +843,31 @@ public class RandomMaze implements Maze {
 
     /**
      * Génère un labyrinthe valide avec un chemin garanti entre l'entrée et la sortie.
-     * Effectue jusqu'à 500 tentatives par niveau de pourcentage de murs.
-     * Si aucun chemin n'est trouvé après 500 tentatives, réduit le pourcentage de murs de 1%.
+     * Avec {@link RandomMazeAlgorithm#RETRY}, effectue jusqu'à 500 tentatives par niveau de pourcentage de murs
+     * et, si aucun chemin n'est trouvé après 500 tentatives, réduit le pourcentage de murs de 1%.
+     * Avec {@link RandomMazeAlgorithm#UNION_FIND}, génère en une seule passe (voir {@link #generateWithUnionFind()}).
      */
     public void generateMaze() {
+        if (algorithm == RandomMazeAlgorithm.UNION_FIND) {
+            generateWithUnionFind();
+            System.out.println("OK: Labyrinthe genere en une passe (union-find)");
+            printStats();
+            return;
+        }
+
         int maxAttemptsPerLevel = 500; // Nombre maximum de tentatives avant de réduire le pourcentage de murs
         int totalAttempts = 1; // Compteur total de tentatives
         int initialWallPercentage = this.wallPercentage; // Sauvegarde du pourcentage initial de murs
 
+        if (generation != null) {
+            generation.begin(0, wallPercentage); // nombre de tentatives inconnu à l'avance
+            generation.attempt(wallPercentage);
+        }
         this.generate(); // Première génération
         
         // Boucle jusqu'à ce qu'un chemin soit trouvé
-        while (this.findOptimalPath(this.start, this.end).isEmpty()) {
+        while (!connected(start.getRow() * width + start.getCol(), end.getRow() * width + end.getCol())) {
+            if (generation != null) generation.attempt(wallPercentage);
             this.generate();
             totalAttempts++;
             
@@ -457,7 +884,14 @@ public class RandomMaze implements Maze {
         } else {
             System.out.println("OK: Labyrinthe genere en " + totalAttempts + " tentative(s)");
         }
-        System.out.println("Distance chemin optimal : " + optimalPathLength() + "\nNombre de murs : " + countWalls() + "\nNombres de chemins : " + countFreeCells() + "\nPourcentage de murs exact : " + ((countWalls() * 100f) / (width * height)) + "%");
+        printStats();
+    }
+
+    private void printStats() {
+        // Pas de recherche de chemin pour un simple journal : la connexité est déjà garantie par la génération,
+        // et la longueur du chemin reste disponible à la demande (optimalPathLength)
+        int walls = countWalls();
+        System.out.println("Nombre de murs : " + walls + "\nNombres de chemins : " + (cells.length - walls) + "\nPourcentage de murs exact : " + ((walls * 100f) / (width * height)) + "%");
     }
 
     /**
@@ -481,7 +915,7 @@ public class RandomMaze implements Maze {
      */
     @Override
     public boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < height && col >= 0 && col < width && grid[row][col] != null;
+        return row >= 0 && row < height && col >= 0 && col < width;
     }
 
 
@@ -539,7 +973,8 @@ public class RandomMaze implements Maze {
     public void setEnd(Cell cell) {
         // On vérifie que cell est bien dans la grille et non null
         if (cell != null && isValidPosition(cell.getRow(), cell.getCol())) {
-            this.end = grid[cell.getRow()][cell.getCol()];
+            this.end = getCell(cell.getRow(), cell.getCol());
+            modCount++;
         }
     }
 
@@ -551,7 +986,8 @@ public class RandomMaze implements Maze {
      */
     public void setEnd(int row, int col) {
         if (isValidPosition(row, col)) {
-            this.end = grid[row][col];
+            this.end = getCell(row, col);
+            modCount++;
         }
     }
 
@@ -572,7 +1008,7 @@ public class RandomMaze implements Maze {
      */
     public void setWall(Cell cell) {
         if (cell != null && isValidPosition(cell.getRow(), cell.getCol())) {
-            grid[cell.getRow()][cell.getCol()].setWall();
+            setCellType(cell.getRow(), cell.getCol(), CellType.WALL);
         }
     }
 
@@ -584,7 +1020,7 @@ public class RandomMaze implements Maze {
      */
     public void setWall(int row, int col) {
         if (isValidPosition(row, col)) {
-            grid[row][col].setWall();
+            setCellType(row, col, CellType.WALL);
         }
     }
 
@@ -595,7 +1031,8 @@ public class RandomMaze implements Maze {
     public void setWidth(int width) {
         if (width > 0) {
             this.width = width;
-            this.grid = new RandomCell[height][width];
+            this.cells = new byte[height * width];
+            modCount++;
         } else {
             throw new IllegalArgumentException("La largeur doit être un entier positif.");
         }
@@ -609,7 +1046,8 @@ public class RandomMaze implements Maze {
     public void setHeight(int height) {
         if (height > 0) {
             this.height = height;
-            this.grid = new RandomCell[height][width];
+            this.cells = new byte[height * width];
+            modCount++;
         } else {
             throw new IllegalArgumentException("La hauteur doit être un entier positif.");
         }
@@ -670,21 +1108,64 @@ public class RandomMaze implements Maze {
     }
 
     /**
-     * Retourne la grille complète du labyrinthe.
+     * Remplace le générateur aléatoire utilisé par les prochaines générations
+     * (par exemple un {@link java.util.Random} pour retrouver l'ancien comportement).
+     * 
+     * @param random le générateur à utiliser
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Retourne la grille complète du labyrinthe, sous forme de vues construites à la demande.
+     * Coûteux sur les grands labyrinthes : préférer {@link #getCell(int, int)}.
      * 
      * @return la matrice bidimensionnelle de cellules
      */
     public Cell[][] getGrid() {
-        return this.grid;
+        Cell[][] grid = new Cell[height][width];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                grid[i][j] = getCell(i, j);
+            }
+        }
+        return grid;
     }
 
+    /**
+     * Retourne une vue sur la cellule (row, col). La vue n'est pas conservée par le labyrinthe :
+     * deux appels renvoient deux objets égaux qui partagent le même état.
+     * 
+     * @param row la ligne de la cellule
+     * @param col la colonne de la cellule
+     * @return la cellule, ou null si la position est invalide
+     */
     public RandomCell getCell(int row, int col) {
         if (isValidPosition(row, col)) {
-            return grid[row][col];
+            return new RandomCell(this, row, col);
         }
         return null;
     }
 
+    /**
+     * @return le type de la cellule (row, col) lu dans le stockage du labyrinthe
+     */
+    CellType getCellType(int row, int col) {
+        return CELL_TYPES[cells[row * width + col]];
+    }
+
+    /**
+     * Modifie le type de la cellule (row, col) dans le stockage du labyrinthe.
+     * Poser ou retirer un mur incrémente {@link #getModCount()}, pas le sable ni le carburant.
+     */
+    void setCellType(int row, int col, CellType cellType) {
+        int id = row * width + col;
+        byte type = (byte) cellType.ordinal();
+        if ((cells[id] == WALL) != (type == WALL)) modCount++;
+        cells[id] = type;
+    }
+
 
     /**
      * Retourne une représentation textuelle du labyrinthe.
@@ -701,7 +1182,7 @@ public class RandomMaze implements Maze {
                     sb.append("S ");
                 } else if (end != null && i == end.getRow() && j == end.getCol()) {
                     sb.append("E ");
-                } else if (grid[i][j] != null && grid[i][j].isWall()) {
+                } else if (cells[i * width + j] == WALL) {
                     sb.append("# ");
                 } else {
                     sb.append("  ");
@@ -718,14 +1199,8 @@ public class RandomMaze implements Maze {
      * @return le nombre de cellules qui ne sont pas des murs
      */
     public int countFreeCells() {
-        int count = 0;
-        if (this.grid == null) return 0;
-        for (int i = 0; i < this.height; i++) {
-            for (int j = 0; j < this.width; j++) {
-                if (!this.grid[i][j].isWall()) count++;
-            }
-        }
-        return count;
+        if (this.cells == null) return 0;
+        return this.cells.length - countWalls();
     }
 
     /**
@@ -735,10 +1210,8 @@ public class RandomMaze implements Maze {
      */
     public int countWalls(){
         int count = 0;
-        for (int i = 0; i < this.height; i++) {
-            for (int j = 0; j < this.width; j++) {
-                if (this.grid[i][j].isWall()) count++;
-            }
+        for (byte cell : this.cells) {
+            if (cell == WALL) count++;
         }
         return count;
     }
@@ -0,0 +1,18 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+/**
+ * Représente les algorithmes de génération disponibles pour un {@link RandomMaze}.
+ *
+ * @author G4
+ */
+public enum RandomMazeAlgorithm {
+    /**
+     * Pose les murs au hasard puis régénère tant que l'entrée et la sortie ne sont pas reliées.
+     * Le pourcentage de murs baisse de 1% toutes les 500 tentatives.
+     */
+    RETRY,
+    /**
+     * Génère en une seule passe en suivant la connexité entrée/sortie avec un union-find.
+     * Le pourcentage de murs demandé est respecté exactement, sans nouvelle tentative.
+     */
+    UNION_FIND
+}
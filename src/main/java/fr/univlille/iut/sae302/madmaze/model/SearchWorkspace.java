@@ -0,0 +1,306 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+import java.util.Arrays;
+
+/**
+ * Tampons réutilisables d'une recherche de chemin sur les identifiants de cellules ({@code row * width + col}).
+ * Les files des parcours en largeur sont des tampons circulaires qui ne grandissent que si la frontière le demande,
+ * la file de priorité de A* et JPS est un tas binaire, les parents et les coûts sont des {@code int[]}.
+ * Les cellules atteintes et fermées sont marquées par le numéro de la recherche en cours : commencer une
+ * nouvelle recherche ne demande ni effacement ni allocation une fois les tableaux dimensionnés.
+ * Les tableaux propres à une sorte de recherche ne sont alloués qu'à sa première utilisation.
+ * Un espace de travail n'est pas partagé entre threads.
+ *
+ * @author G4
+ */
+final class SearchWorkspace {
+    private static final int[] NONE = new int[0];
+
+    private final IntQueue queue = new IntQueue();
+    private final IntQueue backQueue = new IntQueue();
+    private long[] heapKeys = new long[64]; // (f, -g) : à f égal, la cellule la plus avancée d'abord
+    private int[] heapIds = new int[64];
+    private int heapSize;
+    private int[] parent = NONE;
+    private int[] mark = NONE;       // cellule atteinte (parent et coût valides)
+    private int[] cost = NONE;
+    private int[] closed = NONE;     // cellule développée (A*, JPS)
+    private int[] backParent = NONE; // recherche arrière (parcours bidirectionnel)
+    private int[] backMark = NONE;
+    private int[] backCost = NONE;
+    private int stamp;
+    private int expanded;
+
+    /**
+     * Prépare un nouveau parcours en largeur sur une grille de {@code cellCount} cellules.
+     */
+    void reset(int cellCount) {
+        if (mark.length < cellCount) {
+            parent = new int[cellCount];
+            mark = new int[cellCount];
+            cost = closed = backParent = backMark = backCost = NONE; // redimensionnés à la demande
+            stamp = 0;
+        }
+        if (++stamp == 0) { // débordement du compteur : on repart de marques vierges
+            Arrays.fill(mark, 0);
+            Arrays.fill(closed, 0);
+            Arrays.fill(backMark, 0);
+            stamp = 1;
+        }
+        queue.clear();
+        backQueue.clear();
+        heapSize = 0;
+        expanded = 0;
+    }
+
+    /**
+     * Prépare une recherche à coûts (A*, JPS).
+     */
+    void resetWeighted(int cellCount) {
+        reset(cellCount);
+        if (cost.length < cellCount) cost = new int[cellCount];
+        if (closed.length < cellCount) closed = new int[cellCount];
+    }
+
+    /**
+     * Prépare un parcours en largeur bidirectionnel : les coûts sont les distances aux deux extrémités.
+     */
+    void resetBidirectional(int cellCount) {
+        reset(cellCount);
+        if (cost.length < cellCount) cost = new int[cellCount];
+        if (backMark.length < cellCount) {
+            backParent = new int[cellCount];
+            backMark = new int[cellCount];
+            backCost = new int[cellCount];
+        }
+    }
+
+    /**
+     * Marque {@code id} comme atteinte depuis {@code from} et l'ajoute à la file, si elle n'a pas déjà été atteinte.
+     *
+     * @return true si la cellule n'avait pas encore été atteinte
+     */
+    boolean visit(int id, int from) {
+        if (mark[id] == stamp) return false;
+        mark[id] = stamp;
+        parent[id] = from;
+        queue.add(id);
+        return true;
+    }
+
+    /**
+     * Variante de {@link #visit(int, int)} qui retient aussi la distance au départ.
+     */
+    boolean visit(int id, int from, int distance) {
+        if (!visit(id, from)) return false;
+        cost[id] = distance;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    int poll() {
+        expanded++;
+        return queue.poll();
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    boolean isVisited(int id) {
+        return mark[id] == stamp;
+    }
+
+    /**
+     * Marque {@code id} comme atteinte par la recherche arrière, depuis {@code from} (plus proche de l'arrivée).
+     *
+     * @return true si la cellule n'avait pas encore été atteinte par la recherche arrière
+     */
+    boolean visitBack(int id, int from, int distance) {
+        if (backMark[id] == stamp) return false;
+        backMark[id] = stamp;
+        backParent[id] = from;
+        backCost[id] = distance;
+        backQueue.add(id);
+        return true;
+    }
+
+    boolean isBackEmpty() {
+        return backQueue.isEmpty();
+    }
+
+    int pollBack() {
+        expanded++;
+        return backQueue.poll();
+    }
+
+    int backSize() {
+        return backQueue.size();
+    }
+
+    boolean isBackVisited(int id) {
+        return backMark[id] == stamp;
+    }
+
+    int backCost(int id) {
+        return backCost[id];
+    }
+
+    /**
+     * Recoud les deux demi-chemins : les cellules de la recherche arrière, de {@code meet} jusqu'à l'arrivée,
+     * reçoivent comme parent leur prédécesseur côté départ. {@link #parent(int)} mène alors de l'arrivée au départ.
+     *
+     * @param from la cellule atteinte par la recherche avant, voisine de {@code meet}
+     */
+    void join(int from, int meet) {
+        int previous = from;
+        int cur = meet;
+        while (true) {
+            int next = backParent[cur];
+            parent[cur] = previous;
+            if (next == cur) return; // arrivée
+            previous = cur;
+            cur = next;
+        }
+    }
+
+    /**
+     * Enregistre que {@code id} est atteinte depuis {@code from} avec le coût {@code g}, si c'est mieux que connu.
+     *
+     * @return true si le coût de la cellule a été amélioré
+     */
+    boolean relax(int id, int from, int g) {
+        if (mark[id] == stamp && cost[id] <= g) return false;
+        mark[id] = stamp;
+        parent[id] = from;
+        cost[id] = g;
+        return true;
+    }
+
+    int cost(int id) {
+        return cost[id];
+    }
+
+    /**
+     * Marque {@code id} comme développée.
+     *
+     * @return false si elle l'était déjà (entrée périmée de la file de priorité)
+     */
+    boolean close(int id) {
+        if (closed[id] == stamp) return false;
+        closed[id] = stamp;
+        expanded++;
+        return true;
+    }
+
+    /**
+     * @return le nombre de cellules développées par la recherche en cours
+     */
+    int getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Ajoute {@code id} à la file de priorité. Une cellule peut y figurer plusieurs fois : seule la première
+     * sortie, de plus petit coût, est développée.
+     */
+    void push(int id, int f, int g) {
+        if (heapSize == heapIds.length) {
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            heapIds = Arrays.copyOf(heapIds, heapSize * 2);
+        }
+        long key = ((long) f << 32) | (~g & 0xFFFFFFFFL);
+        int i = heapSize++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (heapKeys[p] <= key) break;
+            heapKeys[i] = heapKeys[p];
+            heapIds[i] = heapIds[p];
+            i = p;
+        }
+        heapKeys[i] = key;
+        heapIds[i] = id;
+    }
+
+    boolean isHeapEmpty() {
+        return heapSize == 0;
+    }
+
+    /**
+     * @return la cellule de plus petite priorité, retirée de la file
+     */
+    int pop() {
+        int top = heapIds[0];
+        long key = heapKeys[--heapSize];
+        int id = heapIds[heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) child++;
+            if (key <= heapKeys[child]) break;
+            heapKeys[i] = heapKeys[child];
+            heapIds[i] = heapIds[child];
+            i = child;
+        }
+        heapKeys[i] = key;
+        heapIds[i] = id;
+        return top;
+    }
+
+    /**
+     * @return la cellule depuis laquelle {@code id} a été atteinte (la racine est son propre parent)
+     */
+    int parent(int id) {
+        return parent[id];
+    }
+
+    /**
+     * File d'entiers sur un tampon circulaire dont la capacité, toujours une puissance de 2, double si besoin.
+     */
+    private static final class IntQueue {
+        private int[] items = new int[64];
+        private int head;
+        private int size;
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(int id) {
+            if (size == items.length) grow();
+            items[(head + size++) & (items.length - 1)] = id;
+        }
+
+        int poll() {
+            int id = items[head];
+            head = (head + 1) & (items.length - 1);
+            size--;
+            return id;
+        }
+
+        /**
+         * Double le tampon en remettant ses éléments dans l'ordre à partir de l'indice 0.
+         */
+        private void grow() {
+            int[] larger = new int[items.length * 2];
+            int firstPart = items.length - head;
+            System.arraycopy(items, head, larger, 0, firstPart);
+            System.arraycopy(items, 0, larger, firstPart, head);
+            items = larger;
+            head = 0;
+        }
+    }
+}
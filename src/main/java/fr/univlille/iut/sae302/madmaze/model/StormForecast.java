@@ -0,0 +1,191 @@
+package main.java.fr.univlille.iut.sae302.madmaze.model;
+
+import java.util.Arrays;
+
+/**
+ * Prévisions d'une partie en mode tempête : pour chaque cellule, le tour d'arrivée de la tempête, l'arrivée
+ * au plus tôt du joueur et la marge de sécurité, ainsi qu'un verdict « la partie peut encore être gagnée ».
+ *
+ * Le temps est compté en déplacements du joueur : la vitesse supposée du joueur est de {@code movesPerTick}
+ * déplacements par tour de tempête, et le temps 0 est le démarrage de la tempête (juste après le premier
+ * déplacement). Une cellule atteinte par la tempête au tour {@code a} est sûre jusqu'au temps
+ * {@code a * movesPerTick - 1} inclus.
+ *
+ * La tempête étant fixée dès la préparation du labyrinthe, on calcule une seule fois, depuis la sortie,
+ * l'heure limite de chaque cellule : le dernier instant où le joueur peut s'y trouver et encore atteindre
+ * la sortie sans être rattrapé. Le verdict est alors une simple comparaison, quels que soient la position
+ * du joueur et le tour courant. Seules les arrivées du joueur dépendent de sa position : elles sont recalculées
+ * à la demande, après un déplacement.
+ *
+ * @author G4
+ */
+public class StormForecast {
+    /** Heure limite d'une cellule que rien ne menace. */
+    private static final int NEVER = Integer.MAX_VALUE / 2;
+
+    private final StormMode storm;
+    private final Maze maze;
+    private final int movesPerTick;
+    private final int width;
+    private final int[] latest; // heure limite par cellule, en déplacements ; MIN_VALUE si la sortie est hors d'atteinte
+    private int playerId = -1;
+    private int[] playerDistances; // distances depuis playerId, null tant qu'elles n'ont pas été demandées
+
+    /**
+     * @param storm le mode tempête, dont le labyrinthe est préparé
+     * @param movesPerTick le nombre de déplacements du joueur pendant un tour de tempête (au moins 1)
+     */
+    public StormForecast(StormMode storm, int movesPerTick) {
+        if (movesPerTick < 1) throw new IllegalArgumentException("Le joueur doit faire au moins un déplacement par tour");
+        if (storm.getMaze() == null) throw new IllegalStateException("Le labyrinthe de la tempête n'est pas préparé");
+        this.storm = storm;
+        this.maze = storm.getMaze();
+        this.movesPerTick = movesPerTick;
+        this.width = maze.getWidth();
+        this.latest = latestSafeTimes();
+        Cell start = maze.getStart();
+        setPlayerPosition(start.getRow(), start.getCol());
+    }
+
+    /**
+     * Calcule les heures limites depuis la sortie, par un Dijkstra qui traite les cellules de la plus tardive
+     * à la plus précoce : {@code latest(sortie) = tempête(sortie) - 1}, et pour une voisine {@code v} de {@code c}
+     * depuis laquelle on peut entrer dans {@code c}, {@code latest(v) = min(tempête(v) - 1, latest(c) - 1)}.
+     */
+    private int[] latestSafeTimes() {
+        int n = width * maze.getHeight();
+        int[] times = new int[n];
+        Arrays.fill(times, Integer.MIN_VALUE);
+        SearchWorkspace ws = new SearchWorkspace();
+        ws.resetWeighted(n);
+
+        Cell end = maze.getEnd();
+        int endId = end.getRow() * width + end.getCol();
+        times[endId] = stormTime(endId) - 1;
+        ws.push(endId, -times[endId], 0);
+        while (!ws.isHeapEmpty()) {
+            int id = ws.pop();
+            if (!ws.close(id)) continue; // entrée périmée
+            int row = id / width, col = id % width;
+            int open = maze.openDirections(row, col);
+            while (open != 0) {
+                Direction d = Direction.fromMaskBit(Integer.numberOfTrailingZeros(open));
+                open &= open - 1;
+                int next = (row + d.getDy()) * width + col + d.getDx();
+                int candidate = Math.min(stormTime(next) - 1, times[id] - 1);
+                if (candidate > times[next]) {
+                    times[next] = candidate;
+                    ws.push(next, -candidate, 0);
+                }
+            }
+        }
+        return times;
+    }
+
+    /**
+     * @return l'instant (en déplacements) où la tempête recouvre la cellule, {@link #NEVER} si elle ne l'atteint pas
+     */
+    private int stormTime(int id) {
+        int tick = storm.getArrivalTick(id / width, id % width);
+        return tick < 0 ? NEVER : tick * movesPerTick;
+    }
+
+    /**
+     * Met à jour la position du joueur ; ses arrivées seront recalculées à la prochaine demande.
+     */
+    public void setPlayerPosition(int row, int col) {
+        int id = row * width + col;
+        if (id != playerId) {
+            playerId = id;
+            playerDistances = null;
+        }
+    }
+
+    /**
+     * @return l'instant présent en déplacements : le début du tour courant, ou -1 avant le démarrage de la tempête
+     */
+    public int getCurrentTime() {
+        int tick = storm.getTick();
+        return tick < 0 ? -1 : tick * movesPerTick;
+    }
+
+    /**
+     * Indique si le joueur peut encore atteindre la sortie avant la tempête depuis sa position, au tour courant.
+     * Mis à jour en temps constant à chaque déplacement et à chaque tour.
+     *
+     * @return true si un chemin sûr vers la sortie existe encore
+     */
+    public boolean canStillWin() {
+        return getCurrentTime() <= latest[playerId];
+    }
+
+    /**
+     * @return le tour d'arrivée de la tempête sur la cellule, -1 si elle ne l'atteint jamais
+     */
+    public int getStormArrival(int row, int col) {
+        return storm.getArrivalTick(row, col);
+    }
+
+    /**
+     * @return le nombre de déplacements qu'il faut au joueur pour atteindre la cellule depuis sa position,
+     * -1 si elle est hors d'atteinte
+     */
+    public int getPlayerArrival(int row, int col) {
+        if (!maze.isValidPosition(row, col)) return -1;
+        return playerDistances()[row * width + col];
+    }
+
+    /**
+     * Marge de sécurité de la cellule : le nombre de déplacements dont le joueur dispose encore s'il s'y rend au plus
+     * vite puis continue vers la sortie. Une marge négative signifie que passer par cette cellule fait perdre.
+     *
+     * @return la marge en déplacements, ou {@link Integer#MIN_VALUE} si la cellule est hors d'atteinte du joueur
+     * ou ne mène pas à la sortie
+     */
+    public int getSafetyMargin(int row, int col) {
+        int distance = getPlayerArrival(row, col);
+        if (distance < 0 || latest[row * width + col] == Integer.MIN_VALUE) return Integer.MIN_VALUE;
+        return latest[row * width + col] - (getCurrentTime() + distance);
+    }
+
+    /**
+     * Vérifie sans jouer qu'une partie qui commence est gagnable à cette vitesse.
+     *
+     * @param storm le mode tempête, dont le labyrinthe est préparé
+     * @param movesPerTick la vitesse supposée du joueur
+     * @return true si le joueur peut atteindre la sortie avant la tempête depuis l'entrée
+     */
+    public static boolean isWinnable(StormMode storm, int movesPerTick) {
+        return new StormForecast(storm, movesPerTick).canStillWin();
+    }
+
+    /**
+     * Distances depuis la position du joueur, par un parcours en largeur refait seulement après un déplacement.
+     */
+    private int[] playerDistances() {
+        if (playerDistances != null) return playerDistances;
+        int n = latest.length;
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        dist[playerId] = 0;
+        queue[tail++] = playerId;
+        while (head < tail) {
+            int id = queue[head++];
+            int row = id / width, col = id % width;
+            int open = maze.openDirections(row, col);
+            while (open != 0) {
+                Direction d = Direction.fromMaskBit(Integer.numberOfTrailingZeros(open));
+                open &= open - 1;
+                int next = (row + d.getDy()) * width + col + d.getDx();
+                if (dist[next] == -1) {
+                    dist[next] = dist[id] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        playerDistances = dist;
+        return dist;
+    }
+}
@@ -8,26 +8,35 @@ import java.util.*;
  * recouvrant les cellules de sable. Le joueur doit atteindre la sortie
  * avant d'être rattrapé par la tempête.
  *
+ * La tempête est entièrement déterminée dès la préparation du labyrinthe : un parcours en largeur depuis le départ
+ * donne à chaque cellule son tour d'arrivée. Une cellule est ensablée dès que le tour courant l'a atteint,
+ * et l'ordre du parcours range les cellules par tour d'arrivée : les cellules ensablées sont toujours
+ * les premières de cet ordre. Faire avancer la tempête revient à incrémenter le tour.
+ *
  * @author G4
  */
 public class StormMode implements Mode {
     private Maze maze;
-    private Set<Cell> sandCells;
-    private Set<Cell> stormFront; // Front actuel de la tempête
+    private int[] arrival; // tour d'arrivée de la tempête par cellule (row * width + col), -1 si jamais atteinte
+    private int[] order; // cellules atteintes, par tour d'arrivée croissant
+    private int[] ringEnd; // ringEnd[t] : nombre de cellules atteintes au tour t ou avant
+    private volatile int tick = -1; // tour courant, -1 avant le démarrage
+    private boolean blockedByWalls; // la tempête contourne les murs au lieu de les recouvrir
     private MazeType mazeType;
+    private SplittableRandom seeds; // graines des labyrinthes si setMaze a reçu une graine, null sinon
+    private PerfectMazeAlgorithm algorithm = PerfectMazeAlgorithm.GROWING_TREE;
     private int width;
     private int height;
     private int thirdParameter;
     private int propagationInterval; // En millisecondes
-    private boolean stormStarted; // Indique si la tempête a commencé
+    private volatile boolean stormStarted; // Indique si la tempête a commencé
+    private int run; // numéro de la tempête, changé à chaque démarrage et remise à zéro (sous le verrou du mode)
     
     /**
      * Construit un mode tempête avec un intervalle de propagation fixe de 2 secondes.
      */
     public StormMode() {       
         this.propagationInterval = 1000; // 2 secondes
-        this.sandCells = new HashSet<>();
-        this.stormFront = new HashSet<>();
         this.stormStarted = false;
     }
     
@@ -43,76 +52,104 @@ public class StormMode implements Mode {
         this.thirdParameter = thirdParameter;
     }
 
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int thirdParameter, long seed) {
+        setMaze(mazeType, width, height, thirdParameter);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void setMaze(MazeType mazeType, int width, int height, int thirdParameter, long seed, PerfectMazeAlgorithm algorithm) {
+        setMaze(mazeType, width, height, thirdParameter, seed);
+        this.algorithm = algorithm;
+    }
+
     @Override
     public void prepareMaze() {
-        switch(mazeType) {
-            case RANDOM:
-                this.maze = new RandomMaze(width, height, thirdParameter);
-                break;
-            case PERFECT:
-                this.maze = new PerfectMaze(width, height, thirdParameter);
-                break;
-        }
+        this.maze = MazeFactory.take(mazeType, width, height, thirdParameter, algorithm, seeds);
         initializeStorm();
     }
     
     /**
-     * Initialise la tempête au point de départ du labyrinthe.
-     * Le front commence à la position de départ mais le sable n'apparaît qu'après le premier mouvement.
+     * Calcule le tour d'arrivée de la tempête sur chaque cellule, par un parcours en largeur depuis le départ.
+     * Le sable n'apparaît qu'au démarrage de la tempête, au premier mouvement.
      */
     private void initializeStorm() {
+        int w = maze.getWidth();
+        int n = w * maze.getHeight();
+        arrival = new int[n];
+        order = new int[n];
+        Arrays.fill(arrival, -1);
+        tick = -1;
+
         Cell start = maze.getStart();
-        stormFront.add(start);
-    }
-    
-    /**
-     * Propage la tempête d'une génération.
-     * Toutes les cellules adjacentes au front actuel deviennent du sable.
-     * Utilise un algorithme BFS pour propager en arc de cercle.
-     */
-    public void propagateStorm() {
-        Set<Cell> newFront = new HashSet<>();
-        
-        // Pour chaque cellule du front actuel de la tempête
-        for (Cell frontCell : stormFront) {
-            // Propager aux 4 voisins (haut, bas, gauche, droite)
-            for (Direction dir : Direction.allDirections()) {
-                int newX = frontCell.getCol() + dir.getDx();
-                int newY = frontCell.getRow() + dir.getDy();
-                
-                if (isValidPosition(newX, newY)) {
-                    Cell neighbor = maze.getGrid()[newY][newX];
-                    
-                    // Transformer toutes les cellules en sable (chemins ET murs pour RandomMaze)
-                    // Pour PerfectMaze, les murs n'existent pas dans la grille donc pas de problème
-                    if (neighbor != null && !sandCells.contains(neighbor)) {
-                        newFront.add(neighbor);
-                        sandCells.add(neighbor);
-                        
-                        setSandOnCell(neighbor);
-                    }
+        int startId = start.getRow() * w + start.getCol();
+        arrival[startId] = 0;
+        order[0] = startId;
+        int head = 0, tail = 1;
+        int[] ends = new int[16];
+        while (head < tail) {
+            int id = order[head++];
+            int row = id / w, col = id % w;
+            if (arrival[id] >= ends.length) ends = Arrays.copyOf(ends, ends.length * 2);
+            ends[arrival[id]] = head;
+            // Sans blocage, la tempête recouvre aussi les murs (RandomMaze) et traverse les cloisons (PerfectMaze)
+            int open = blockedByWalls ? maze.openDirections(row, col) : 0b1111;
+            while (open != 0) {
+                Direction dir = Direction.fromMaskBit(Integer.numberOfTrailingZeros(open));
+                open &= open - 1;
+                int newX = col + dir.getDx();
+                int newY = row + dir.getDy();
+                if (isValidPosition(newX, newY) && arrival[newY * w + newX] == -1) {
+                    arrival[newY * w + newX] = arrival[id] + 1;
+                    order[tail++] = newY * w + newX;
                 }
             }
         }
-        
-        // Le nouveau front devient le front actuel
-        stormFront = newFront;
+        ringEnd = Arrays.copyOf(ends, arrival[order[tail - 1]] + 1);
     }
-    
+
+    /**
+     * Propage la tempête d'un tour : les cellules dont c'est le tour d'arrivée deviennent du sable.
+     * Sans effet tant que la tempête n'a pas démarré (par exemple juste après {@link #reset()}).
+     * Le test et l'incrément se font sous le verrou du mode, comme {@link #reset()} : une remise à zéro
+     * ne peut pas s'intercaler entre les deux.
+     */
+    public synchronized void propagateStorm() {
+        if (stormStarted) {
+            tick++;
+        }
+    }
+
     /**
-     * Définit une cellule comme recouverte de sable.
-     * Fonctionne avec RandomCell et PerfectCell.
+     * Propage la tempête d'un tour seulement si elle est toujours celle démarrée sous le numéro donné.
+     * Un thread de propagation en retard, lancé pour une tempête remise à zéro depuis, reste ainsi sans effet,
+     * même si une nouvelle tempête a démarré entre-temps.
      *
-     * @param cell la cellule à transformer en sable
+     * @param run le numéro rendu par {@link #startStorm()}
      */
-    private void setSandOnCell(Cell cell) {
-        if (cell instanceof RandomCell) {
-            ((RandomCell) cell).setSand();
-        } else if (cell instanceof PerfectCell) {
-            ((PerfectCell) cell).setSand();
+    public synchronized void propagateStorm(int run) {
+        if (run == this.run) {
+            propagateStorm();
         }
     }
-    
+
+    /**
+     * Choisit si la tempête contourne les murs (elle ne se propage alors que par les passages)
+     * ou les recouvre comme les chemins, ce qui est le comportement par défaut.
+     * Le tour d'arrivée de chaque cellule est recalculé.
+     *
+     * @param blockedByWalls true pour que la tempête contourne les murs
+     */
+    public void setBlockedByWalls(boolean blockedByWalls) {
+        this.blockedByWalls = blockedByWalls;
+        if (maze != null) initializeStorm();
+    }
+
+    public boolean isBlockedByWalls() {
+        return blockedByWalls;
+    }
+
     /**
      * Vérifie si une position est valide dans le labyrinthe.
      *
@@ -123,7 +160,18 @@ public class StormMode implements Mode {
     private boolean isValidPosition(int x, int y) {
         return x >= 0 && x < maze.getWidth() && y >= 0 && y < maze.getHeight();
     }
-    
+
+    /**
+     * Vérifie si la cellule (row, col) est recouverte de sable.
+     *
+     * @return true si la tempête l'a atteinte
+     */
+    public boolean isSand(int row, int col) {
+        if (arrival == null || !isValidPosition(col, row)) return false;
+        int t = arrival[row * maze.getWidth() + col];
+        return t >= 0 && t <= tick;
+    }
+
     /**
      * Vérifie si le joueur est rattrapé par la tempête.
      *
@@ -134,19 +182,55 @@ public class StormMode implements Mode {
         if (playerPosition == null) {
             return false;
         }
-        
-        // Vérifier directement si la cellule du labyrinthe est de type SAND
-        Cell cell = maze.getGrid()[playerPosition.getRow()][playerPosition.getCol()];
-        
-        if (cell instanceof RandomCell) {
-            return ((RandomCell) cell).isSand();
-        } else if (cell instanceof PerfectCell) {
-            return ((PerfectCell) cell).isSand();
-        }
-        
-        return false;
+        return isSand(playerPosition.getRow(), playerPosition.getCol());
     }
-    
+
+    /**
+     * Retourne le tour auquel la tempête atteint la cellule (row, col).
+     *
+     * @return le tour d'arrivée (0 pour le départ), -1 si la tempête ne l'atteint jamais
+     */
+    public int getArrivalTick(int row, int col) {
+        if (arrival == null || !isValidPosition(col, row)) return -1;
+        return arrival[row * maze.getWidth() + col];
+    }
+
+    /**
+     * @return le tour courant de la tempête, -1 tant qu'elle n'a pas démarré
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Nombre de cellules recouvertes de sable au tour donné. Les cellules ensablées au tour {@code t} sont
+     * celles d'indices {@code getSandCount(t - 1)} inclus à {@code getSandCount(t)} exclu (voir {@link #getSandCell(int)}).
+     *
+     * @param t le tour
+     * @return le nombre de cellules atteintes au tour {@code t} ou avant
+     */
+    public int getSandCount(int t) {
+        if (t < 0 || ringEnd == null) return 0;
+        return ringEnd[Math.min(t, ringEnd.length - 1)];
+    }
+
+    /**
+     * @return le nombre de cellules recouvertes de sable au tour courant
+     */
+    public int getSandCount() {
+        return getSandCount(tick);
+    }
+
+    /**
+     * Retourne une cellule ensablée, par ordre d'arrivée de la tempête.
+     *
+     * @param index l'indice, entre 0 et {@link #getSandCount()} exclu
+     * @return l'identifiant de la cellule ({@code row * width + col})
+     */
+    public int getSandCell(int index) {
+        return order[index];
+    }
+
     /**
      * Retourne l'intervalle de propagation en millisecondes.
      *
@@ -159,17 +243,13 @@ public class StormMode implements Mode {
     /**
      * Démarre la tempête (appelé au premier mouvement du joueur).
      * Met la case de départ en sable immédiatement.
+     *
+     * @return le numéro de cette tempête, à passer à {@link #propagateStorm(int)}
      */
-    public void startStorm() {
+    public synchronized int startStorm() {
         this.stormStarted = true;
-        
-        // Mettre la case de départ en sable au démarrage de la tempête
-        Cell start = maze.getStart();
-        sandCells.add(start);
-        Cell startCell = maze.getGrid()[start.getRow()][start.getCol()];
-        if (startCell != null) {
-            setSandOnCell(startCell);
-        }
+        this.tick = 0; // la case de départ est ensablée
+        return ++run;
     }
 
     /**
@@ -188,28 +268,40 @@ public class StormMode implements Mode {
     
     /**
      * Retourne toutes les cellules recouvertes de sable.
+     * Construit un nouvel ensemble : pour parcourir le sable, préférer {@link #getSandCell(int)}.
      *
      * @return un ensemble des cellules de sable
      */
     public Set<Cell> getSandCells() {
-        return new HashSet<>(sandCells);
+        return cellsBetween(0, getSandCount());
     }
     
     /**
-     * Retourne le front actuel de la tempête.
+     * Retourne le front actuel de la tempête : les cellules ensablées au tour courant.
      *
      * @return un ensemble des cellules du front de la tempête
      */
     public Set<Cell> getStormFront() {
-        return new HashSet<>(stormFront);
+        return cellsBetween(getSandCount(tick - 1), getSandCount());
+    }
+
+    private Set<Cell> cellsBetween(int from, int to) {
+        Set<Cell> cells = new HashSet<>();
+        int w = maze.getWidth();
+        for (int i = from; i < to; i++) {
+            cells.add(maze.getCell(order[i] / w, order[i] % w));
+        }
+        return cells;
     }
     
     /**
-     * Réinitialise le mode tempête en régénérant le labyrinthe.
+     * Réinitialise le mode tempête sur le même labyrinthe : la tempête n'a pas encore démarré.
+     * Les tours d'arrivée ne dépendent que du labyrinthe et sont gardés : seul le tour courant est remis à zéro.
+     * Pour un nouveau labyrinthe, appeler {@link #prepareMaze()}.
      */
-    public void reset() {
-        sandCells.clear();
-        stormFront.clear();
-        prepareMaze();
+    public synchronized void reset() {
+        stormStarted = false;
+        tick = -1;
+        run++;
     }
 }
\ No newline at end of file
@@ -21,6 +21,8 @@ public class EndGameWinView {
     private final Stage stage;
     private final int moves;
     private Button menuBtn;
+    private Button nextBtn;  // mode progression seulement, s'il reste un défi
+    private Button retryBtn; // mode progression seulement
     private final EndGameWinController controller;
     private final Game game;
     private ImageView background;
@@ -67,7 +69,17 @@ public class EndGameWinView {
         
         BorderPane layout = new BorderPane();
         layout.setCenter(centerBox);
-        HBox bottomBox = new HBox(menuBtn);
+        HBox bottomBox = new HBox(20, menuBtn);
+        if (game.getMode() instanceof ProgressionMode) {
+            retryBtn = new Button("Rejouer");
+            retryBtn.getStyleClass().add("end-game-win-button");
+            bottomBox.getChildren().add(retryBtn);
+            if (((ProgressionMode) game.getMode()).hasNextChallenge()) {
+                nextBtn = new Button("Défi suivant");
+                nextBtn.getStyleClass().add("end-game-win-button");
+                bottomBox.getChildren().add(nextBtn);
+            }
+        }
         bottomBox.setAlignment(Pos.CENTER);
         bottomBox.setPadding(new Insets(0, 0, 30, 0));
         layout.setBottom(bottomBox);
@@ -114,6 +126,8 @@ public class EndGameWinView {
 
     public String setLbl() { return "Félicitations ! Vous avez trouvé la sortie."; }
     public Button getMenuBtn() { return menuBtn; }
+    public Button getNextBtn() { return nextBtn; }
+    public Button getRetryBtn() { return retryBtn; }
     public Stage getStage() { return stage; }
     public Game getGame() { return game; }
     public boolean isLost() { return game.isLost(); }
@@ -0,0 +1,81 @@
+package main.java.fr.univlille.iut.sae302.madmaze.view;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import main.java.fr.univlille.iut.sae302.madmaze.controller.GenerationProgressController;
+import main.java.fr.univlille.iut.sae302.madmaze.model.GenerationTask;
+
+/**
+ * Fenêtre modale affichant l'avancement d'une génération en fond, avec un bouton pour l'annuler.
+ * Elle se ferme d'elle-même à la fin de la génération.
+ *
+ * @author G4
+ */
+public class GenerationProgressView {
+
+    private final Stage window;
+    private final GenerationTask<?> task;
+    private final ProgressBar progressBar;
+    private final Label statusLabel;
+    private final Button cancelBtn;
+
+    public GenerationProgressView(Stage owner, GenerationTask<?> task) {
+        this.task = task;
+        this.window = new Stage();
+        window.initOwner(owner);
+        window.initModality(Modality.WINDOW_MODAL);
+        window.setTitle("Génération du labyrinthe");
+
+        progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.setPrefWidth(300);
+        statusLabel = new Label("Génération en cours...");
+        statusLabel.getStyleClass().add("parameter-label");
+        cancelBtn = new Button("Annuler");
+        cancelBtn.getStyleClass().addAll("parameter-button", "parameter-button-full");
+
+        GenerationProgressController controller = new GenerationProgressController(this);
+        show();
+        controller.setupListeners();
+    }
+
+    public void show() {
+        VBox root = new VBox(15, statusLabel, progressBar, cancelBtn);
+        root.setAlignment(Pos.CENTER);
+        root.setPadding(new Insets(20));
+
+        Scene scene = new Scene(root, 380, 180);
+        scene.getStylesheets().add(getClass().getResource("/styles/parameter.css").toExternalForm());
+        window.setScene(scene);
+        window.show();
+    }
+
+    /**
+     * Met à jour la barre et le texte à partir de l'état courant de la tâche.
+     */
+    public void refresh() {
+        progressBar.setProgress(task.getProgress()); // -1 : barre indéterminée
+        String status = "Cellules creusées : " + task.getCellsCarved();
+        if (task.getAttempts() > 0) {
+            status += "\nTentatives : " + task.getAttempts();
+        }
+        if (task.getWallPercentage() >= 0) {
+            status += "\nMurs : " + task.getWallPercentage() + "%";
+        }
+        statusLabel.setText(status);
+    }
+
+    public void close() {
+        window.close();
+    }
+
+    public GenerationTask<?> getTask() { return task; }
+    public Stage getWindow() { return window; }
+    public Button getCancelButton() { return cancelBtn; }
+}
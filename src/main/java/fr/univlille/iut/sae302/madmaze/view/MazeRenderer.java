@@ -1,7 +1,6 @@
 package main.java.fr.univlille.iut.sae302.madmaze.view;
 
 import java.io.InputStream;
-import java.util.Set;
 
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -108,21 +107,19 @@ public class MazeRenderer {
                 gc.setFill(cellColor(game, y, x, showWalls, showStart, showEnd));
                 gc.fillRect(offsetX + x * cellSize, offsetY + y * cellSize, cellSize, cellSize);
 
-                // Affiche le bidon seulement s'il n'a pas été ramassé
-                if (game.getMode() instanceof FuelMode) {
-                    FuelMode fuelMode = (FuelMode) game.getMode();
-                    Cell currentCell = game.getMode().getMaze().getCell(y, x);
-                    if (fuelMode.hasFuelAt(currentCell)) {
-                        gc.drawImage(fuel, offsetX + x * cellSize, offsetY + y * cellSize, cellSize, cellSize);
-                    }
-                }
-
                 if (game.getMode().getMaze() instanceof RandomMaze) {
                     gc.setStroke(Color.LIGHTGRAY);
                     gc.strokeRect(offsetX + x * cellSize, offsetY + y * cellSize, cellSize, cellSize);
                 }
             }
         }
+
+        // Affiche seulement les bidons qui n'ont pas été ramassés, sans passer par les cellules
+        if (game.getMode() instanceof FuelMode fuelMode) {
+            for (int id = fuelMode.nextFuelCell(0); id >= 0; id = fuelMode.nextFuelCell(id + 1)) {
+                gc.drawImage(fuel, offsetX + id % w * cellSize, offsetY + id / w * cellSize, cellSize, cellSize);
+            }
+        }
     }
     /**
      * Surcharge de drawMaze avec les paramètres par défaut (affiche tous les éléments).
@@ -624,8 +621,8 @@ public class MazeRenderer {
             gc.setLineWidth(2);
             for (int row = 0; row < h - 1; row++) {
                 for (int col = 0; col < w; col++) {
-                    Cell c1 = pm.getGrid()[row][col];
-                    Cell c2 = pm.getGrid()[row+1][col];
+                    Cell c1 = pm.getCell(row, col);
+                    Cell c2 = pm.getCell(row+1, col);
                     if ((game.isExplored(c1) || game.isExplored(c2)) && pm.isWall(row, col, row+1, col)) {
                         gc.strokeLine(
                             offsetX + col * cellSize + 0.5, 
@@ -637,8 +634,8 @@ public class MazeRenderer {
             }
             for (int row = 0; row < h; row++) {
                 for (int col = 0; col < w-1; col++) {
-                    Cell c1 = pm.getGrid()[row][col];
-                    Cell c2 = pm.getGrid()[row][col+1];
+                    Cell c1 = pm.getCell(row, col);
+                    Cell c2 = pm.getCell(row, col+1);
                     if ((game.isExplored(c1) || game.isExplored(c2)) && pm.isWall(row, col, row, col+1)) {
                         gc.strokeLine(
                             offsetX + (col+1) * cellSize + 0.5, 
@@ -781,15 +778,16 @@ public class MazeRenderer {
         double offsetX = (gc.getCanvas().getWidth() - mazeWidthPixels) / 2.0;
         double offsetY = (gc.getCanvas().getHeight() - mazeHeightPixels) / 2.0;
 
-        // Afficher les cellules SAND en rouge
+        // Afficher les cellules SAND en rouge, dans l'ordre d'arrivée de la tempête (sans copie d'ensemble)
         if (game.getMode() instanceof StormMode) {
             StormMode stormMode = (StormMode) game.getMode();
-            Set<Cell> sandCells = stormMode.getSandCells();
+            int sandCount = stormMode.getSandCount();
             
             gc.setFill(Color.RED);
-            for (Cell sandCell : sandCells) {
-                int fx = sandCell.getCol();
-                int fy = sandCell.getRow();
+            for (int i = 0; i < sandCount; i++) {
+                int id = stormMode.getSandCell(i);
+                int fx = id % w;
+                int fy = id / w;
                 gc.fillRect(offsetX + fx * cellSize, offsetY + fy * cellSize, cellSize, cellSize);
             }
         }
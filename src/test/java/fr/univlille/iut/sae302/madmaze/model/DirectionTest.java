@@ -74,4 +74,23 @@ class DirectionTest {
         assertEquals(5, resultLeft.getRow());
         assertEquals(4, resultLeft.getCol());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMaskAndOpposite() {
+        int all = 0;
+        for (Direction d : Direction.values()) {
+            all |= d.mask();
+            assertEquals(d, d.opposite().opposite());
+            assertEquals(-d.getDx(), d.opposite().getDx());
+            assertEquals(-d.getDy(), d.opposite().getDy());
+        }
+        assertEquals(0b1111, all);
+    }
+
+    @Test
+    public void testFromMaskBit() {
+        for (Direction d : Direction.values()) {
+            assertSame(d, Direction.fromMaskBit(Integer.numberOfTrailingZeros(d.mask())));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package test.java.fr.univlille.iut.sae302.madmaze.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import main.java.fr.univlille.iut.sae302.madmaze.model.EllerMazeGenerator;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeRow;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeRowExporter;
+
+public class EllerMazeGeneratorTest {
+
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) id = parent[id] = parent[parent[id]];
+        return id;
+    }
+
+    @Test
+    public void testPerfectMaze() {
+        int width = 30, height = 40;
+        EllerMazeGenerator generator = new EllerMazeGenerator(width, height, new SplittableRandom(5));
+        int[] parent = new int[width * height];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+        int passages = 0;
+
+        while (generator.hasNext()) {
+            MazeRow row = generator.next();
+            int base = (int) row.getIndex() * width;
+            assertTrue(row.hasEastWall(width - 1));
+            for (int col = 0; col < width; col++) {
+                if (col < width - 1 && !row.hasEastWall(col)) {
+                    // Un passage entre deux cellules déjà reliées créerait une boucle
+                    assertNotEquals(find(parent, base + col), find(parent, base + col + 1));
+                    parent[find(parent, base + col)] = find(parent, base + col + 1);
+                    passages++;
+                }
+                if (!row.hasSouthWall(col)) {
+                    assertTrue(row.getIndex() < height - 1);
+                    assertNotEquals(find(parent, base + col), find(parent, base + col + width));
+                    parent[find(parent, base + col)] = find(parent, base + col + width);
+                    passages++;
+                }
+            }
+        }
+        assertEquals(width * height - 1, passages);
+        assertThrows(NoSuchElementException.class, generator::next);
+    }
+
+    @Test
+    public void testTallStream() {
+        EllerMazeGenerator generator = new EllerMazeGenerator(40, Long.MAX_VALUE);
+        for (int i = 0; i < 200_000; i++) {
+            MazeRow row = generator.next();
+            assertEquals(i, row.getIndex());
+        }
+        assertTrue(generator.hasNext());
+    }
+
+    @Test
+    public void testExport() throws IOException {
+        StringWriter out = new StringWriter();
+        long rows = MazeRowExporter.write(new EllerMazeGenerator(8, 5), out);
+        assertEquals(5, rows);
+        String[] lines = out.toString().split("\n");
+        assertEquals(1 + 2 * 5, lines.length);
+        assertEquals("+---+---+---+---+---+---+---+---+", lines[0]);
+        assertEquals(lines[0], lines[lines.length - 1]);
+    }
+}
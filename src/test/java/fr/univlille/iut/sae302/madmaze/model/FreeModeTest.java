@@ -7,6 +7,7 @@ import main.java.fr.univlille.iut.sae302.madmaze.model.FreeMode;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
 import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
 import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMaze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMazeAlgorithm;
 import main.java.fr.univlille.iut.sae302.madmaze.model.RandomMaze;
 
 import org.junit.jupiter.api.DisplayName;
@@ -51,4 +52,36 @@ class FreeModeTest {
             freeMode.prepareMaze();
         }, "Calling prepareMaze without setMaze should throw NullPointer because mazeType is null");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSeededPrepareMaze() {
+        for (MazeType type : MazeType.values()) {
+            FreeMode other = new FreeMode();
+            freeMode.setMaze(type, 25, 20, 30, 42L);
+            other.setMaze(type, 25, 20, 30, 42L);
+            freeMode.prepareMaze();
+            other.prepareMaze();
+            assertEquals(freeMode.getMaze().toString(), other.getMaze().toString());
+            assertEquals(freeMode.getMaze().getStart(), other.getMaze().getStart());
+            assertEquals(freeMode.getMaze().getEnd(), other.getMaze().getEnd());
+
+            Maze first = freeMode.getMaze();
+            freeMode.prepareMaze(); // labyrinthe suivant de la même suite
+            other.prepareMaze();
+            assertEquals(freeMode.getMaze().toString(), other.getMaze().toString());
+            assertNotEquals(first.toString(), freeMode.getMaze().toString());
+        }
+    }
+
+    @Test
+    void testPrepareMazeWithAlgorithm() {
+        FreeMode other = new FreeMode();
+        freeMode.setMaze(MazeType.PERFECT, 20, 20, 10, 8L, PerfectMazeAlgorithm.RECURSIVE_DIVISION);
+        other.setMaze(MazeType.PERFECT, 20, 20, 10, 8L);
+        freeMode.prepareMaze();
+        other.prepareMaze();
+        assertNotEquals(freeMode.getMaze().toString(), other.getMaze().toString());
+        assertEquals(new PerfectMaze(20, 20, 10, new java.util.SplittableRandom(new java.util.SplittableRandom(8L).nextLong()),
+                PerfectMazeAlgorithm.RECURSIVE_DIVISION).toString(), freeMode.getMaze().toString());
+    }
+}
@@ -0,0 +1,81 @@
+package test.java.fr.univlille.iut.sae302.madmaze.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import main.java.fr.univlille.iut.sae302.madmaze.model.Cell;
+import main.java.fr.univlille.iut.sae302.madmaze.model.FuelMode;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+class FuelModeTest {
+
+    private FuelMode fuelMode;
+
+    @BeforeEach
+    void setUp() {
+        fuelMode = new FuelMode();
+        fuelMode.setMaze(MazeType.RANDOM, 30, 20, 25, 9L);
+        fuelMode.prepareMaze();
+    }
+
+    @Test
+    void testFuelLayer() {
+        Maze maze = fuelMode.getMaze();
+        Set<Cell> cells = fuelMode.getFuelCells();
+        assertEquals(cells.size(), fuelMode.getFuelCount());
+        assertTrue(fuelMode.getFuelCount() > 0);
+
+        // Le parcours des bits rend exactement les cellules portant un bidon, dans l'ordre des identifiants
+        int visited = 0;
+        int previous = -1;
+        for (int id = fuelMode.nextFuelCell(0); id >= 0; id = fuelMode.nextFuelCell(id + 1)) {
+            assertTrue(id > previous);
+            assertTrue(cells.contains(maze.getCell(id / 30, id % 30)));
+            previous = id;
+            visited++;
+        }
+        assertEquals(cells.size(), visited);
+
+        for (int row = 0; row < 20; row++) {
+            for (int col = 0; col < 30; col++) {
+                Cell cell = maze.getCell(row, col);
+                assertEquals(cells.contains(cell), fuelMode.hasFuelAt(row, col));
+                assertEquals(cells.contains(cell), fuelMode.hasFuelAt(cell));
+            }
+        }
+        assertFalse(fuelMode.hasFuelAt(-1, 0));
+        assertFalse(fuelMode.hasFuelAt(maze.getStart()));
+        assertFalse(fuelMode.hasFuelAt(maze.getEnd()));
+    }
+
+    @Test
+    void testPickUp() {
+        int id = fuelMode.nextFuelCell(0);
+        Cell can = fuelMode.getMaze().getCell(id / 30, id % 30);
+        int count = fuelMode.getFuelCount();
+
+        fuelMode.onMove(can);
+        assertEquals(fuelMode.getMaxFuel(), fuelMode.getFuelLeft());
+        assertFalse(fuelMode.hasFuelAt(can));
+        assertEquals(count - 1, fuelMode.getFuelCount());
+        assertNotEquals(id, fuelMode.nextFuelCell(0));
+
+        // Un bidon ramassé ne remplit plus le réservoir
+        fuelMode.onMove(can);
+        assertEquals(fuelMode.getMaxFuel() - 1, fuelMode.getFuelLeft());
+        assertEquals(count - 1, fuelMode.getFuelCount());
+    }
+
+    @Test
+    void testSeededCansAreReproducible() {
+        FuelMode other = new FuelMode();
+        other.setMaze(MazeType.RANDOM, 30, 20, 25, 9L);
+        other.prepareMaze();
+        assertEquals(fuelMode.getFuelCells(), other.getFuelCells());
+    }
+}
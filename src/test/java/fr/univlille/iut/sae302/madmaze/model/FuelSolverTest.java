@@ -0,0 +1,126 @@
+package test.java.fr.univlille.iut.sae302.madmaze.model;
+
+import org.junit.jupiter.api.Test;
+
+import main.java.fr.univlille.iut.sae302.madmaze.model.Cell;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Direction;
+import main.java.fr.univlille.iut.sae302.madmaze.model.FuelMode;
+import main.java.fr.univlille.iut.sae302.madmaze.model.FuelSolver;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
+import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMazeAlgorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+class FuelSolverTest {
+
+    /**
+     * Référence : parcours en largeur sur tous les états (cellule, carburant), sans élagage.
+     */
+    private static int reference(Maze maze, int maxFuel, long[] cans) {
+        int w = maze.getWidth();
+        int n = w * maze.getHeight();
+        int[] moves = new int[n * (maxFuel + 1)];
+        Arrays.fill(moves, -1);
+        int startId = maze.getStart().getRow() * w + maze.getStart().getCol();
+        int endId = maze.getEnd().getRow() * w + maze.getEnd().getCol();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        moves[startId * (maxFuel + 1) + maxFuel] = 0;
+        queue.add(startId * (maxFuel + 1) + maxFuel);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int id = state / (maxFuel + 1), fuel = state % (maxFuel + 1);
+            if (id == endId) return moves[state];
+            int row = id / w, col = id % w;
+            for (Direction d : Direction.allDirections()) {
+                if ((maze.openDirections(row, col) & d.mask()) == 0) continue;
+                int next = (row + d.getDy()) * w + col + d.getDx();
+                int arrival = (cans[next >>> 6] & (1L << next)) != 0 ? maxFuel : fuel - 1;
+                int nextState = next * (maxFuel + 1) + arrival;
+                if (arrival >= 1 && moves[nextState] == -1) {
+                    moves[nextState] = moves[state] + 1;
+                    queue.add(nextState);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long[] randomCans(Maze maze, Random random, int count) {
+        int n = maze.getWidth() * maze.getHeight();
+        long[] cans = FuelSolver.newCanSet(n);
+        for (int i = 0; i < count; i++) {
+            int id = random.nextInt(n);
+            cans[id >>> 6] |= 1L << id;
+        }
+        return cans;
+    }
+
+    @Test
+    void testMinimumMovesMatchesReference() {
+        Random random = new Random(11);
+        for (long seed = 0; seed < 20; seed++) {
+            Maze maze = seed % 2 == 0
+                    ? MazeType.RANDOM.create(25, 20, 30, seed, PerfectMazeAlgorithm.GROWING_TREE)
+                    : MazeType.PERFECT.create(25, 20, 10, seed, PerfectMazeAlgorithm.GROWING_TREE);
+            for (int maxFuel = 2; maxFuel <= 12; maxFuel += 5) {
+                FuelSolver solver = new FuelSolver(maze, maxFuel);
+                for (int trial = 0; trial < 5; trial++) {
+                    long[] cans = randomCans(maze, random, 10 + trial * 20);
+                    assertEquals(reference(maze, maxFuel, cans), solver.minimumMoves(cans), "graine " + seed);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPlacementIsSolvableAndMinimal() {
+        for (long seed = 0; seed < 10; seed++) {
+            Maze maze = MazeType.PERFECT.create(30, 30, 20, seed, PerfectMazeAlgorithm.GROWING_TREE);
+            int maxFuel = 6;
+            FuelSolver solver = new FuelSolver(maze, maxFuel);
+            long[] cans = solver.placeCans();
+            int length = maze.optimalPathLength();
+            assertEquals(length, solver.minimumMoves(cans));
+
+            int count = 0;
+            for (long word : cans) count += Long.bitCount(word);
+            assertEquals((length + maxFuel - 2) / (maxFuel - 1) - 1, count);
+
+            // Retirer n'importe quel bidon rend le niveau infaisable
+            for (int word = 0; word < cans.length; word++) {
+                for (long bits = cans[word]; bits != 0; bits &= bits - 1) {
+                    long bit = Long.lowestOneBit(bits);
+                    cans[word] ^= bit;
+                    assertFalse(solver.isSolvable(cans));
+                    cans[word] ^= bit;
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFuelModeLevelIsSolvable() {
+        FuelMode fuelMode = new FuelMode();
+        fuelMode.setMaze(MazeType.RANDOM, 40, 40, 25, 5L);
+        fuelMode.prepareMaze();
+        Cell start = fuelMode.getMaze().getStart();
+        assertTrue(fuelMode.isSolvable(start));
+        assertTrue(fuelMode.getMinimumMoves(start) >= fuelMode.getMaze().optimalPathLength());
+
+        fuelMode.setMaze(MazeType.PERFECT, 40, 40, 30, 5L);
+        fuelMode.prepareMaze();
+        start = fuelMode.getMaze().getStart();
+        assertEquals(fuelMode.getMaze().optimalPathLength(), fuelMode.getMinimumMoves(start));
+    }
+
+    @Test
+    void testInvalidTank() {
+        Maze maze = MazeType.PERFECT.create(10, 10, 5, 1L, PerfectMazeAlgorithm.GROWING_TREE);
+        assertThrows(IllegalArgumentException.class, () -> new FuelSolver(maze, 1));
+    }
+}
@@ -3,6 +3,7 @@ package test.java.fr.univlille.iut.sae302.madmaze.model;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Cell;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Direction;
 import main.java.fr.univlille.iut.sae302.madmaze.model.FreeMode;
+import main.java.fr.univlille.iut.sae302.madmaze.model.FuelMode;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Game;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
 import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
@@ -14,6 +15,8 @@ import org.junit.jupiter.api.DisplayName;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Set;
+
 class GameTest {
 
     private Game game;
@@ -113,6 +116,32 @@ class GameTest {
         assertEquals(Direction.D, game.getJoueurDirection());
     }
 
+    @Test
+    void testResetKeepsLevel() {
+        FuelMode fuelMode = new FuelMode();
+        fuelMode.setMaze(MazeType.PERFECT, 20, 20, 30, 4L);
+        Game fuelGame = new Game(fuelMode);
+        Maze maze = fuelGame.getMaze();
+        Set<Cell> cans = fuelMode.getFuelCells();
+        Set<Cell> explored = fuelGame.getExploredCells();
+
+        // Suit le plus court chemin jusqu'à ramasser un bidon
+        int count = fuelMode.getFuelCount();
+        while (fuelMode.getFuelCount() == count) {
+            Cell position = fuelGame.getPlayerPosition();
+            assertTrue(fuelGame.movePlayer(maze.nextStepToEnd(position.getRow(), position.getCol())));
+        }
+        assertNotEquals(explored, fuelGame.getExploredCells());
+
+        fuelGame.reset();
+        assertSame(maze, fuelGame.getMaze());
+        assertEquals(maze.getStart(), fuelGame.getPlayerPosition());
+        assertEquals(cans, fuelMode.getFuelCells());
+        assertEquals(fuelMode.getMaxFuel(), fuelMode.getFuelLeft());
+        assertEquals(explored, fuelGame.getExploredCells());
+        assertTrue(fuelMode.isSolvable(maze.getStart()));
+    }
+
     @Test
     void testObservers() {
         TestObserver obs = new TestObserver();
@@ -0,0 +1,73 @@
+package test.java.fr.univlille.iut.sae302.madmaze.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+
+import main.java.fr.univlille.iut.sae302.madmaze.model.GenerationTask;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
+import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMazeAlgorithm;
+import main.java.fr.univlille.iut.sae302.madmaze.model.RandomMaze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.RandomMazeAlgorithm;
+
+public class GenerationTaskTest {
+
+    @Test
+    public void testPerfectMazeProgress() {
+        GenerationTask<Maze> task = GenerationTask.submit(MazeType.PERFECT, 200, 100, 10, 42L, PerfectMazeAlgorithm.GROWING_TREE);
+        Maze maze = task.getFuture().join();
+
+        // Même graine, même labyrinthe qu'une génération synchrone
+        assertEquals(MazeType.PERFECT.create(200, 100, 10, 42L).toString(), maze.toString());
+        assertEquals(200 * 100, task.getTotalCells());
+        assertEquals(200 * 100 - 1, task.getCellsCarved()); // un passage par cellule sauf la racine
+        assertEquals(-1, task.getWallPercentage());
+        assertEquals(1.0, task.getProgress());
+    }
+
+    @Test
+    public void testRandomMazeProgress() {
+        GenerationTask<Maze> task = GenerationTask.submit(() -> new RandomMaze(40, 40, 45, RandomMazeAlgorithm.RETRY, new SplittableRandom(7)));
+        RandomMaze maze = (RandomMaze) task.getFuture().join();
+        assertTrue(task.getAttempts() >= 1);
+        assertTrue(task.getWallPercentage() <= 45 && task.getWallPercentage() > 0);
+        assertTrue(maze.optimalPathLength() > 0);
+
+        GenerationTask<Maze> unionFind = GenerationTask.submit(MazeType.RANDOM, 40, 40, 45, 7L, PerfectMazeAlgorithm.GROWING_TREE);
+        unionFind.getFuture().join();
+        assertEquals(45, unionFind.getWallPercentage());
+        assertTrue(unionFind.getCellsCarved() > 0);
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        GenerationTask<Maze> task = GenerationTask.submit(MazeType.PERFECT, 3000, 3000, 10, 1L, PerfectMazeAlgorithm.ELLER);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (task.getCellsCarved() == 0 && !task.isDone()) {
+            assertTrue(System.currentTimeMillis() < deadline, "la génération n'a pas démarré");
+            Thread.sleep(5);
+        }
+        assertTrue(task.cancel());
+        assertTrue(task.isCancelled());
+
+        // La génération s'arrête : le compteur ne bouge plus
+        Thread.sleep(100);
+        long carved = task.getCellsCarved();
+        Thread.sleep(100);
+        assertEquals(carved, task.getCellsCarved());
+        assertTrue(carved < 3000L * 3000 - 1);
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        GenerationTask<Maze> task = GenerationTask.submit(MazeType.PERFECT, 1, 10, 5, 1L, PerfectMazeAlgorithm.GROWING_TREE);
+        CompletionException e = assertThrows(CompletionException.class, () -> task.getFuture().join());
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+        assertThrows(NullPointerException.class,
+                () -> GenerationTask.submit(null, 10, 10, 5, 1L, PerfectMazeAlgorithm.GROWING_TREE));
+    }
+}
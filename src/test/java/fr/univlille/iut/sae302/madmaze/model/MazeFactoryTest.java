@@ -0,0 +1,166 @@
+package test.java.fr.univlille.iut.sae302.madmaze.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeFactory;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
+import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMaze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMazeAlgorithm;
+
+public class MazeFactoryTest {
+
+    private MazeFactory factory;
+
+    @AfterEach
+    public void tearDown() {
+        if (factory != null) factory.shutdown();
+    }
+
+    private void awaitPooled(MazeType type, int width, int height, int param, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (factory.pooledCount(type, width, height, param, PerfectMazeAlgorithm.GROWING_TREE) < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "le stock n'a pas été complété");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testMissThenHit() throws InterruptedException {
+        factory = new MazeFactory(2, 1L << 20, 1);
+        Maze first = factory.take(MazeType.PERFECT, 15, 10, 5, PerfectMazeAlgorithm.GROWING_TREE);
+        assertTrue(first instanceof PerfectMaze);
+        assertEquals(1, factory.getMisses());
+        assertEquals(0, factory.getHits());
+
+        awaitPooled(MazeType.PERFECT, 15, 10, 5, 2);
+        Maze second = factory.take(MazeType.PERFECT, 15, 10, 5, PerfectMazeAlgorithm.GROWING_TREE);
+        assertNotSame(first, second);
+        assertEquals(15, second.getWidth());
+        assertEquals(1, factory.getHits());
+    }
+
+    @Test
+    public void testMemoryCap() throws InterruptedException {
+        // Place pour deux labyrinthes aléatoires 10 x 10 seulement
+        long cap = 2 * MazeFactory.estimatedBytes(MazeType.RANDOM, 10, 10);
+        factory = new MazeFactory(2, cap, 1);
+        factory.take(MazeType.RANDOM, 10, 10, 20, PerfectMazeAlgorithm.GROWING_TREE);
+        awaitPooled(MazeType.RANDOM, 10, 10, 20, 2);
+
+        // Une nouvelle clé évince la plus ancienne
+        factory.take(MazeType.RANDOM, 10, 10, 30, PerfectMazeAlgorithm.GROWING_TREE);
+        awaitPooled(MazeType.RANDOM, 10, 10, 30, 2);
+        assertEquals(0, factory.pooledCount(MazeType.RANDOM, 10, 10, 20, PerfectMazeAlgorithm.GROWING_TREE));
+        assertTrue(factory.getPooledBytes() <= cap);
+    }
+
+    @Test
+    public void testEvictionFollowsRequestsNotCompletions() throws InterruptedException {
+        // Un grand labyrinthe demandé en premier finit sa génération après un petit demandé ensuite
+        long big = MazeFactory.estimatedBytes(MazeType.PERFECT, 400, 400);
+        long small = MazeFactory.estimatedBytes(MazeType.RANDOM, 10, 10);
+        factory = new MazeFactory(1, big + 2 * small - 1, 2);
+        factory.take(MazeType.PERFECT, 400, 400, 10, PerfectMazeAlgorithm.GROWING_TREE);
+        factory.take(MazeType.RANDOM, 10, 10, 20, PerfectMazeAlgorithm.GROWING_TREE);
+        awaitPooled(MazeType.RANDOM, 10, 10, 20, 1);
+        awaitPooled(MazeType.PERFECT, 400, 400, 10, 1);
+
+        // Le dépassement évince la clé la moins récemment demandée, pas la dernière terminée
+        factory.take(MazeType.RANDOM, 10, 10, 30, PerfectMazeAlgorithm.GROWING_TREE);
+        awaitPooled(MazeType.RANDOM, 10, 10, 30, 1);
+        assertEquals(0, factory.pooledCount(MazeType.PERFECT, 400, 400, 10, PerfectMazeAlgorithm.GROWING_TREE));
+        assertEquals(1, factory.pooledCount(MazeType.RANDOM, 10, 10, 20, PerfectMazeAlgorithm.GROWING_TREE));
+    }
+
+    @Test
+    public void testPoolCappedByMemory() throws InterruptedException {
+        long estimate = MazeFactory.estimatedBytes(MazeType.RANDOM, 10, 10);
+        factory = new MazeFactory(3, estimate, 1);
+        factory.take(MazeType.RANDOM, 10, 10, 20, PerfectMazeAlgorithm.GROWING_TREE);
+        awaitPooled(MazeType.RANDOM, 10, 10, 20, 1);
+        factory.take(MazeType.RANDOM, 10, 10, 20, PerfectMazeAlgorithm.GROWING_TREE);
+        awaitPooled(MazeType.RANDOM, 10, 10, 20, 1);
+        assertEquals(1, factory.getHits());
+        assertEquals(estimate, factory.getPooledBytes());
+
+        // Une clé plus grosse que le plafond n'est jamais pré-générée
+        factory.take(MazeType.RANDOM, 20, 20, 20, PerfectMazeAlgorithm.GROWING_TREE);
+        factory.take(MazeType.RANDOM, 20, 20, 20, PerfectMazeAlgorithm.GROWING_TREE);
+        assertEquals(3, factory.getMisses());
+        assertEquals(1, factory.pooledCount(MazeType.RANDOM, 10, 10, 20, PerfectMazeAlgorithm.GROWING_TREE));
+    }
+
+    /**
+     * Taille retenue mesurée d'un graphe d'objets, par réflexion : en-têtes de 16 octets, références de 8 octets,
+     * objets du JDK comptés forfaitairement (32 octets), énumérations partagées non comptées.
+     */
+    private static long retainedBytes(Object root, Map<Object, Boolean> seen) throws IllegalAccessException {
+        if (root == null || root instanceof Enum || root instanceof Class || seen.put(root, true) != null) return 0;
+        Class<?> cls = root.getClass();
+        if (cls.isArray()) {
+            int length = Array.getLength(root);
+            Class<?> component = cls.getComponentType();
+            if (!component.isPrimitive()) {
+                long total = 16 + 8L * length;
+                for (int i = 0; i < length; i++) total += retainedBytes(Array.get(root, i), seen);
+                return total;
+            }
+            int size = component == long.class || component == double.class ? 8
+                    : component == int.class || component == float.class ? 4
+                    : component == short.class || component == char.class ? 2 : 1;
+            return 16 + (long) size * length;
+        }
+        if (!cls.getName().startsWith("main.java.")) return 32;
+        long total = 16;
+        for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                total += 8;
+                if (!field.getType().isPrimitive()) {
+                    field.setAccessible(true);
+                    total += retainedBytes(field.get(root), seen);
+                }
+            }
+        }
+        return total;
+    }
+
+    @Test
+    public void testEstimateCoversRetainedSize() throws Exception {
+        for (MazeType type : MazeType.values()) {
+            if (factory != null) factory.shutdown();
+            factory = new MazeFactory(2, 1L << 26, 1);
+            int param = type == MazeType.PERFECT ? 50 : 30;
+            factory.take(type, 120, 90, param, PerfectMazeAlgorithm.GROWING_TREE);
+            awaitPooled(type, 120, 90, param, 2);
+            long perMaze = factory.getPooledBytes() / 2;
+            assertEquals(MazeFactory.estimatedBytes(type, 120, 90), perMaze);
+
+            Maze pooled = factory.take(type, 120, 90, param, PerfectMazeAlgorithm.GROWING_TREE);
+            long retained = retainedBytes(pooled, new IdentityHashMap<>());
+            assertTrue(retained <= perMaze, type + " : " + retained + " octets retenus pour " + perMaze + " estimés");
+            // La mesure voit bien la grille : l'estimation ne la surévalue pas de plus du forfait
+            assertTrue(perMaze - retained < 512, type + " : " + retained + " octets retenus pour " + perMaze + " estimés");
+        }
+    }
+
+    @Test
+    public void testInvalidKey() {
+        factory = new MazeFactory(2, 1L << 20, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> factory.take(MazeType.PERFECT, 1, 10, 5, PerfectMazeAlgorithm.GROWING_TREE));
+        assertThrows(NullPointerException.class,
+                () -> factory.take(null, 10, 10, 5, PerfectMazeAlgorithm.GROWING_TREE));
+        assertEquals(0, factory.pooledCount(MazeType.PERFECT, 1, 10, 5, PerfectMazeAlgorithm.GROWING_TREE));
+    }
+}
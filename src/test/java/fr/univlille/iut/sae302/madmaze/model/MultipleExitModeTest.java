@@ -87,4 +87,14 @@ class MultipleExitModeTest {
             emptyMode.generateFalseExits(3);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSeededFalseExitsAreReproducible() {
+        multiMode.setMaze(MazeType.RANDOM, WIDTH, HEIGHT, 30, 12L);
+        multiMode.prepareMaze();
+        MultipleExitMode other = new MultipleExitMode();
+        other.setMaze(MazeType.RANDOM, WIDTH, HEIGHT, 30, 12L);
+        other.prepareMaze();
+        assertArrayEquals(multiMode.getFalseExit(), other.getFalseExit());
+    }
+}
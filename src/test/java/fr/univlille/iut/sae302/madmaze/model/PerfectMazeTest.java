@@ -9,8 +9,10 @@ import java.beans.Transient;
 import java.util.List;
 
 import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMaze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMazeAlgorithm;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Cell;
 import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectCell;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Direction;
 
 public class PerfectMazeTest {
     private PerfectMaze maze;
@@ -96,5 +98,193 @@ public class PerfectMazeTest {
         Cell cellC = maze.getCell(4, 8);
         assertFalse(maze.isDirectlyReachable(cellA, cellC));
     }
-    
+
+    @Test
+    public void testSpanningTree() {
+        // Un labyrinthe parfait possède exactement (largeur * hauteur - 1) passages
+        int passages = 0;
+        for (int row = 0; row < maze.getHeight(); row++) {
+            for (int col = 0; col < maze.getWidth(); col++) {
+                if (col < maze.getWidth() - 1 && !maze.isWall(row, col, row, col + 1)) passages++;
+                if (row < maze.getHeight() - 1 && !maze.isWall(row, col, row + 1, col)) passages++;
+            }
+        }
+        assertEquals(maze.getWidth() * maze.getHeight() - 1, passages);
+        assertTrue(maze.isConnected(maze.getStart(), maze.getEnd()));
+
+        // Et toutes les cellules sont atteignables depuis l'entrée
+        for (int row = 0; row < maze.getHeight(); row++) {
+            for (int col = 0; col < maze.getWidth(); col++) {
+                assertFalse(maze.findOptimalPath(maze.getStart(), maze.getCell(row, col)).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void testCellViewSharesState() {
+        PerfectCell cell = maze.getCell(1, 1);
+        assertFalse(cell.isFuel());
+        cell.setFuel();
+        assertTrue(maze.getCell(1, 1).isFuel());
+        assertEquals(cell, maze.getCell(1, 1));
+        assertFalse(maze.getCell(1, 2).isFuel());
+    }
+
+    @Test
+    public void testLargeMaze() {
+        PerfectMaze large = new PerfectMaze(700, 700, 500);
+        List<Cell> path = large.findOptimalPath(large.getStart(), large.getEnd());
+        assertTrue(path.size() - 1 >= 500);
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(large.isDirectlyReachable(path.get(i - 1), path.get(i)));
+        }
+    }
+
+    @Test
+    public void testSeededGeneration() {
+        PerfectMaze a = new PerfectMaze(30, 30, 20, new java.util.SplittableRandom(7));
+        PerfectMaze b = new PerfectMaze(30, 30, 20, new java.util.SplittableRandom(7));
+        assertEquals(a.toString(), b.toString());
+        assertEquals(a.getStart(), b.getStart());
+        assertEquals(a.getEnd(), b.getEnd());
+    }
+
+    @Test
+    public void testTiledGeneration() {
+        PerfectMaze tiled = new PerfectMaze(600, 300, 100, new java.util.SplittableRandom(3), PerfectMazeAlgorithm.TILED_GROWING_TREE);
+        assertSpanningTree(tiled);
+
+        // La génération parallèle reste reproductible
+        PerfectMaze again = new PerfectMaze(600, 300, 100, new java.util.SplittableRandom(3), PerfectMazeAlgorithm.TILED_GROWING_TREE);
+        assertEquals(tiled.toString(), again.toString());
+    }
+
+    @Test
+    public void testEllerGeneration() {
+        assertSpanningTree(new PerfectMaze(40, 70, 30, new java.util.SplittableRandom(9), PerfectMazeAlgorithm.ELLER));
+    }
+
+    @Test
+    public void testWilsonGeneration() {
+        assertSpanningTree(new PerfectMaze(45, 35, 30, new java.util.SplittableRandom(11), PerfectMazeAlgorithm.WILSON));
+
+        // Sur une grille 2x2, les 4 arbres couvrants (un seul mur restant) sont équiprobables
+        java.util.SplittableRandom random = new java.util.SplittableRandom(1);
+        int[] counts = new int[4];
+        for (int i = 0; i < 400; i++) {
+            PerfectMaze small = new PerfectMaze(2, 2, 1, random, PerfectMazeAlgorithm.WILSON);
+            if (small.isWall(0, 0, 0, 1)) counts[0]++;
+            if (small.isWall(1, 0, 1, 1)) counts[1]++;
+            if (small.isWall(0, 0, 1, 0)) counts[2]++;
+            if (small.isWall(0, 1, 1, 1)) counts[3]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 60 && count < 140, "répartition : " + java.util.Arrays.toString(counts));
+        }
+    }
+
+    @Test
+    public void testRecursiveDivisionGeneration() {
+        // 300 x 200 dépasse le seuil de découpage parallèle
+        PerfectMaze divided = new PerfectMaze(300, 200, 50, new java.util.SplittableRandom(4), PerfectMazeAlgorithm.RECURSIVE_DIVISION);
+        assertSpanningTree(divided);
+        PerfectMaze again = new PerfectMaze(300, 200, 50, new java.util.SplittableRandom(4), PerfectMazeAlgorithm.RECURSIVE_DIVISION);
+        assertEquals(divided.toString(), again.toString());
+    }
+
+    @Test
+    public void testDistanceToEnd() {
+        PerfectMaze big = new PerfectMaze(60, 40, 30, new java.util.SplittableRandom(6), PerfectMazeAlgorithm.GROWING_TREE);
+        java.util.SplittableRandom rand = new java.util.SplittableRandom(6);
+        for (int t = 0; t < 50; t++) {
+            Cell from = big.getCell(rand.nextInt(40), rand.nextInt(60));
+            int distance = big.distanceToEnd(from.getRow(), from.getCol());
+            assertEquals(distance, big.findOptimalPath(from, big.getCell(big.getEnd().getRow(), big.getEnd().getCol())).size() - 1);
+
+            // Le premier pas rapproche d'une case de la sortie
+            if (distance > 0) {
+                Direction d = big.nextStepToEnd(from.getRow(), from.getCol());
+                assertFalse(big.isWall(from.getRow(), from.getCol(), from.getRow() + d.getDy(), from.getCol() + d.getDx()));
+                assertEquals(distance - 1, big.distanceToEnd(from.getRow() + d.getDy(), from.getCol() + d.getDx()));
+            }
+        }
+        assertEquals(0, big.distanceToEnd(big.getEnd().getRow(), big.getEnd().getCol()));
+        assertNull(big.nextStepToEnd(big.getEnd().getRow(), big.getEnd().getCol()));
+        assertEquals(-1, big.distanceToEnd(-1, 0));
+
+        // Déplacer la sortie invalide le champ
+        int modCount = big.getModCount();
+        big.setEnd(big.getStart());
+        assertNotEquals(modCount, big.getModCount());
+        assertEquals(0, big.optimalPathLength());
+    }
+
+    @Test
+    public void testPathLength() {
+        PerfectMaze big = new PerfectMaze(120, 80, 50, new java.util.SplittableRandom(13), PerfectMazeAlgorithm.WILSON);
+        java.util.SplittableRandom rand = new java.util.SplittableRandom(13);
+        for (int t = 0; t < 200; t++) {
+            Cell from = big.getCell(rand.nextInt(80), rand.nextInt(120));
+            Cell to = big.getCell(rand.nextInt(80), rand.nextInt(120));
+            List<Cell> path = big.findOptimalPath(from, to);
+            assertEquals(path.size() - 1, big.pathLength(from, to));
+            assertEquals(from, path.get(0));
+            assertEquals(to, path.get(path.size() - 1));
+            for (int i = 1; i < path.size(); i++) {
+                assertTrue(big.isDirectlyReachable(path.get(i - 1), path.get(i)));
+            }
+            // Chemin simple : aucune cellule répétée
+            assertEquals(path.size(), new java.util.HashSet<>(path).size());
+        }
+        assertEquals(0, big.pathLength(big.getStart(), big.getStart()));
+        assertEquals(big.optimalPathLength(), big.pathLength(big.getStart(), big.getEnd()));
+        assertEquals(-1, big.pathLength(big.getStart(), new PerfectCell(-1, 0)));
+    }
+
+    private static void assertSpanningTree(PerfectMaze maze) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
+
+        // Arbre couvrant : (n - 1) passages et toutes les cellules atteintes par un parcours en largeur
+        int passages = 0;
+        boolean[] seen = new boolean[width * height];
+        int[] queue = new int[width * height];
+        int head = 0, tail = 0;
+        queue[tail++] = 0;
+        seen[0] = true;
+        while (head < tail) {
+            int id = queue[head++];
+            int row = id / width, col = id % width;
+            int[][] next = {{row, col + 1}, {row + 1, col}, {row, col - 1}, {row - 1, col}};
+            for (int k = 0; k < 4; k++) {
+                int r = next[k][0], c = next[k][1];
+                if (!maze.isValidPosition(r, c) || maze.isWall(row, col, r, c)) continue;
+                if (k < 2) passages++;
+                if (!seen[r * width + c]) {
+                    seen[r * width + c] = true;
+                    queue[tail++] = r * width + c;
+                }
+            }
+        }
+        assertEquals(width * height, tail);
+        assertEquals(width * height - 1, passages);
+    }
+
+    @Test
+    public void testEndFromAnotherMazeIsRebound() {
+        PerfectMaze previous = new PerfectMaze(20, 15, 5, new java.util.SplittableRandom(3), PerfectMazeAlgorithm.GROWING_TREE);
+        PerfectMaze next = new PerfectMaze(20, 15, 5, new java.util.SplittableRandom(4), PerfectMazeAlgorithm.GROWING_TREE);
+        Cell savedEnd = previous.getEnd();
+        next.setEnd(savedEnd);
+        next.setStart(previous.getStart());
+        assertEquals(savedEnd, next.getEnd());
+
+        // La sortie lit et modifie l'état du nouveau labyrinthe, pas celui de l'ancien
+        next.getEnd().setSand();
+        assertTrue(next.getCell(savedEnd.getRow(), savedEnd.getCol()).isSand());
+        assertFalse(previous.getEnd().isSand());
+
+        assertThrows(IllegalArgumentException.class, () -> next.setEnd(new PerfectCell(15, 0)));
+        assertThrows(IllegalArgumentException.class, () -> next.setStart(new PerfectCell(0, -1)));
+    }
 }
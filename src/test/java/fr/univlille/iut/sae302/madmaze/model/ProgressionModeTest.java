@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import main.java.fr.univlille.iut.sae302.madmaze.model.Challenge;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Difficulty;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Game;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Level;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
 import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
@@ -99,4 +100,66 @@ class ProgressionModeTest {
         progressionMode.selectLevelAndChallenge(3, 0);
         assertEquals(7, progressionMode.getCurrentChallenge().getMazeParam());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPrefetchNextChallengeAndRetry() {
+        progressionMode.selectLevelAndChallenge(0, 2);
+        assertTrue(progressionMode.isPrefetched(0, 2));
+        assertTrue(progressionMode.isPrefetched(1, 0));
+
+        Maze first = progressionMode.getMaze();
+        progressionMode.prepareMaze(); // nouvelle tentative : copie pré-générée du même défi
+        assertNotSame(first, progressionMode.getMaze());
+        assertEquals(first.getWidth(), progressionMode.getMaze().getWidth());
+        assertTrue(progressionMode.isPrefetched(1, 0));
+
+        assertTrue(progressionMode.selectNextChallenge());
+        assertEquals(1, progressionMode.getCurrentLevelIndex());
+        assertEquals(0, progressionMode.getCurrentChallengeIndex());
+        Challenge challenge = progressionMode.getCurrentChallenge();
+        assertEquals(challenge.getWidth(), progressionMode.getMaze().getWidth());
+        assertEquals(challenge.getHeight(), progressionMode.getMaze().getHeight());
+        assertTrue(progressionMode.isPrefetched(1, 1));
+    }
+
+    @Test
+    void testPrefetchCancelledOnOtherChallenge() {
+        progressionMode.selectLevelAndChallenge(0, 0);
+        assertTrue(progressionMode.isPrefetched(0, 1));
+        progressionMode.selectLevelAndChallenge(4, 1);
+        assertFalse(progressionMode.isPrefetched(0, 0));
+        assertFalse(progressionMode.isPrefetched(0, 1));
+        assertTrue(progressionMode.isPrefetched(4, 2));
+
+        progressionMode.selectLevelAndChallenge(5, 2);
+        assertFalse(progressionMode.selectNextChallenge());
+        progressionMode.cancelPrefetch();
+        assertFalse(progressionMode.isPrefetched(5, 2));
+    }
+
+    @Test
+    void testGameOnPreparedMazeKeepsPrefetches() {
+        progressionMode.selectLevelAndChallenge(1, 1);
+        Maze prepared = progressionMode.getMaze();
+        Game game = Game.onPreparedMaze(progressionMode);
+        assertSame(prepared, game.getMaze());
+        assertTrue(progressionMode.isPrefetched(1, 1));
+        assertTrue(progressionMode.isPrefetched(1, 2));
+
+        // Rejouer consomme la copie du défi sans abandonner le défi suivant
+        progressionMode.retryChallenge();
+        assertNotSame(prepared, progressionMode.getMaze());
+        assertEquals(prepared.getWidth(), progressionMode.getMaze().getWidth());
+        assertEquals(1, progressionMode.getCurrentChallengeIndex());
+        assertTrue(progressionMode.isPrefetched(1, 1));
+        assertTrue(progressionMode.isPrefetched(1, 2));
+
+        assertTrue(progressionMode.hasNextChallenge());
+        assertTrue(progressionMode.selectNextChallenge());
+        assertSame(progressionMode.getMaze(), Game.onPreparedMaze(progressionMode).getMaze());
+        assertEquals(2, progressionMode.getCurrentChallengeIndex());
+
+        progressionMode.selectLevelAndChallenge(5, 2);
+        assertFalse(progressionMode.hasNextChallenge());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Cell;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
 import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
+import main.java.fr.univlille.iut.sae302.madmaze.model.PathFinder;
 import main.java.fr.univlille.iut.sae302.madmaze.model.PerfectMaze;
 import main.java.fr.univlille.iut.sae302.madmaze.model.RaceMode;
 import main.java.fr.univlille.iut.sae302.madmaze.model.RandomMaze;
@@ -55,6 +56,36 @@ class RaceModeTest {
         assertFalse(path.isEmpty());
     }
 
+    @Test
+    void testPrepareMazeWithPathFinder() {
+        raceMode.setPathFinder(PathFinder.JUMP_POINT);
+        raceMode.setMaze(MazeType.RANDOM, 20, 20, 30, 4L);
+        raceMode.prepareMaze();
+        Maze maze = raceMode.getMaze();
+        assertEquals(PathFinder.JUMP_POINT, maze.getPathFinder());
+        List<Cell> path = raceMode.getBotPerfectPath();
+        assertFalse(path.isEmpty());
+        assertEquals(maze.getEnd(), path.get(path.size() - 1));
+    }
+
+    @Test
+    void testBotStartFartherThanPlayer() {
+        raceMode.setMaze(MazeType.RANDOM, 40, 40, 25, 9L);
+        raceMode.prepareMaze();
+        RandomMaze maze = (RandomMaze) raceMode.getMaze();
+        List<Cell> path = raceMode.getBotPerfectPath();
+
+        // Le bot part d'une case libre plus éloignée de la sortie que l'entrée, par un plus court chemin
+        Cell botStart = path.get(0);
+        assertFalse(maze.isWall(botStart));
+        assertTrue(path.size() - 1 > maze.optimalPathLength());
+        assertEquals(maze.distanceToEnd(botStart.getRow(), botStart.getCol()), path.size() - 1);
+        assertEquals(maze.getEnd(), path.get(path.size() - 1));
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(maze.isDirectlyReachable(path.get(i - 1), path.get(i)));
+        }
+    }
+
     @Test
     void testIsLostLogic() {
         raceMode.setMaze(MazeType.PERFECT, 10, 10, 1);
@@ -84,4 +115,14 @@ class RaceModeTest {
         assertEquals(20, raceMode.getMaze().getWidth());
         assertEquals(25, raceMode.getMaze().getHeight());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSeededBotStartIsReproducible() {
+        raceMode.setMaze(MazeType.RANDOM, 30, 30, 25, 12L);
+        raceMode.prepareMaze();
+        RaceMode other = new RaceMode();
+        other.setMaze(MazeType.RANDOM, 30, 30, 25, 12L);
+        other.prepareMaze();
+        assertEquals(raceMode.getBotPerfectPath(), other.getBotPerfectPath());
+    }
+}
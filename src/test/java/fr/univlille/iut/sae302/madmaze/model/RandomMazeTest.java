@@ -3,14 +3,21 @@ package test.java.fr.univlille.iut.sae302.madmaze.model;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 import main.java.fr.univlille.iut.sae302.madmaze.model.CellType;
 import main.java.fr.univlille.iut.sae302.madmaze.model.RandomCell;
 import main.java.fr.univlille.iut.sae302.madmaze.model.RandomMaze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.RandomMazeAlgorithm;
 import main.java.fr.univlille.iut.sae302.madmaze.model.Cell;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Direction;
+import main.java.fr.univlille.iut.sae302.madmaze.model.PathFinder;
 
 public class RandomMazeTest {
 
@@ -103,6 +110,259 @@ public class RandomMazeTest {
         assertFalse(maze.isDirectlyReachable(cellA, cellC));
     }
 
+    @Test
+    public void testCellViewSharesState() {
+        RandomCell cell = maze.getCell(0, 0);
+        cell.setSand();
+        assertTrue(maze.getCell(0, 0).isSand());
+        assertEquals(cell, maze.getCell(0, 0));
+        cell.setWall();
+        assertTrue(maze.isWall(0, 0));
+        assertEquals(maze.getWidth() * maze.getHeight(), maze.countWalls() + maze.countFreeCells());
+    }
+
+    @Test
+    public void testOpenDirections() {
+        for (int row = 0; row < maze.getHeight(); row++) {
+            for (int col = 0; col < maze.getWidth(); col++) {
+                int open = maze.openDirections(row, col);
+                for (Direction d : Direction.values()) {
+                    Cell next = maze.getCell(row + d.getDy(), col + d.getDx());
+                    boolean reachable = next != null && maze.isDirectlyReachable(maze.getCell(row, col), next);
+                    assertEquals(reachable, (open & d.mask()) != 0);
+                }
+            }
+        }
+        assertEquals(0, maze.openDirections(-1, 0));
+    }
+
+    @Test
+    public void testOptimalPathAllocation() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        RandomMaze open = new RandomMaze(300, 300, 0);
+        open.findOptimalPath(open.getStart(), open.getEnd()); // préchauffage
+
+        // Le parcours des voisins ne doit rien allouer
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int total = 0;
+        for (int row = 0; row < open.getHeight(); row++) {
+            for (int col = 0; col < open.getWidth(); col++) {
+                total += Integer.bitCount(open.openDirections(row, col));
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(total > 0);
+        assertTrue(allocated < 4096, "octets alloués : " + allocated);
+
+        // Le BFS n'alloue que sa file et ses parents (8 octets par cellule) et le chemin renvoyé
+        before = threads.getThreadAllocatedBytes(threadId);
+        List<Cell> path = open.findOptimalPath(open.getStart(), open.getEnd());
+        allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertFalse(path.isEmpty());
+        long bound = 8L * open.getWidth() * open.getHeight() + 128L * path.size() + 4096;
+        assertTrue(allocated < bound, "octets alloués : " + allocated);
+    }
+
+    @Test
+    public void testPathFindersAgree() {
+        SplittableRandom rand = new SplittableRandom(11);
+        for (int t = 0; t < 200; t++) {
+            RandomMaze maze = new RandomMaze(5 + rand.nextInt(30), 5 + rand.nextInt(30), rand.nextInt(60), new SplittableRandom(t));
+            Cell from = maze.getCell(rand.nextInt(maze.getHeight()), rand.nextInt(maze.getWidth()));
+            Cell to = maze.getEnd();
+            int expected = maze.findOptimalPath(from, to).size();
+            for (PathFinder finder : PathFinder.values()) {
+                maze.setPathFinder(finder);
+                List<Cell> path = maze.findOptimalPath(from, to);
+                assertEquals(expected, path.size(), finder.name());
+                for (int i = 1; i < path.size(); i++) {
+                    Cell prev = path.get(i - 1), cur = path.get(i);
+                    assertEquals(1, Math.abs(prev.getRow() - cur.getRow()) + Math.abs(prev.getCol() - cur.getCol()), finder.name());
+                    assertFalse(maze.isWall(cur), finder.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIsConnected() {
+        SplittableRandom rand = new SplittableRandom(8);
+        for (int t = 0; t < 200; t++) {
+            RandomMaze dense = new RandomMaze(5 + rand.nextInt(30), 5 + rand.nextInt(30), 40 + rand.nextInt(30), new SplittableRandom(t));
+            Cell from = dense.getCell(rand.nextInt(dense.getHeight()), rand.nextInt(dense.getWidth()));
+            Cell to = dense.getCell(rand.nextInt(dense.getHeight()), rand.nextInt(dense.getWidth()));
+            assertEquals(!dense.findOptimalPath(from, to).isEmpty(), dense.isConnected(from, to));
+        }
+        assertFalse(maze.isConnected(maze.getStart(), new RandomCell(-1, 0)));
+
+        // Les deux frontières se rejoignent au milieu : moins de cellules développées qu'un parcours simple
+        RandomMaze large = new RandomMaze(500, 500, 20, RandomMazeAlgorithm.UNION_FIND, new SplittableRandom(1));
+        int length = large.optimalPathLength();
+        int bfs = large.getExpandedNodes();
+        large.setPathFinder(PathFinder.BIDIRECTIONAL_BFS);
+        assertEquals(length, large.optimalPathLength());
+        assertTrue(large.getExpandedNodes() < bfs, large.getExpandedNodes() + " / " + bfs);
+        assertTrue(large.isConnected(large.getStart(), large.getEnd()));
+    }
+
+    @Test
+    public void testJumpPointExpandsFewerNodes() {
+        RandomMaze maze = new RandomMaze(1000, 1000, 5, RandomMazeAlgorithm.UNION_FIND, new SplittableRandom(5));
+        int length = maze.optimalPathLength();
+        int bfs = maze.getExpandedNodes();
+
+        maze.setPathFinder(PathFinder.A_STAR);
+        assertEquals(length, maze.optimalPathLength());
+        int aStar = maze.getExpandedNodes();
+
+        maze.setPathFinder(PathFinder.JUMP_POINT);
+        assertEquals(length, maze.optimalPathLength());
+        int jps = maze.getExpandedNodes();
+
+        assertTrue(aStar * 10 < bfs, "A* : " + aStar + ", BFS : " + bfs);
+        assertTrue(jps * 10 < bfs, "JPS : " + jps + ", BFS : " + bfs);
+
+        // Validité de la génération vérifiée avec la recherche choisie
+        RandomMaze retry = new RandomMaze(60, 60, 40, RandomMazeAlgorithm.RETRY, new SplittableRandom(2), PathFinder.JUMP_POINT);
+        assertEquals(PathFinder.JUMP_POINT, retry.getPathFinder());
+        assertTrue(retry.optimalPathLength() > 0);
+    }
+
+    @Test
+    public void testDistanceField() {
+        RandomMaze field = new RandomMaze(40, 30, 30, new SplittableRandom(12));
+        int length = field.optimalPathLength();
+        int modCount = field.getModCount();
+        SplittableRandom rand = new SplittableRandom(12);
+        for (int t = 0; t < 100; t++) {
+            RandomCell from = field.getCell(rand.nextInt(30), rand.nextInt(40));
+            int distance = field.distanceToEnd(from.getRow(), from.getCol());
+            assertEquals(distance, field.findOptimalPath(from, field.getEnd()).size() - 1);
+            if (distance > 0 && !field.isWall(from)) {
+                Direction d = field.nextStepToEnd(from.getRow(), from.getCol());
+                assertEquals(distance - 1, field.distanceToEnd(from.getRow() + d.getDy(), from.getCol() + d.getDx()));
+            }
+        }
+
+        // Le champ suit la recherche choisie, et n'est pas remis en cause par le sable
+        field.setPathFinder(PathFinder.A_STAR);
+        assertEquals(length, field.optimalPathLength());
+        field.setPathFinder(PathFinder.BFS);
+        List<Cell> path = field.findOptimalPath(field.getStart(), field.getEnd());
+        ((RandomCell) path.get(path.size() / 2)).setSand();
+        assertEquals(modCount, field.getModCount());
+
+        // Un mur sur le chemin optimal invalide le champ
+        ((RandomCell) path.get(path.size() / 2)).setWall();
+        assertNotEquals(modCount, field.getModCount());
+        int blocked = field.optimalPathLength();
+        assertTrue(blocked == -1 || blocked >= length);
+        field.setPathFinder(PathFinder.A_STAR);
+        assertEquals(blocked, field.optimalPathLength());
+    }
+
+    @Test
+    public void testFindPathOfLength() {
+        RandomMaze open = new RandomMaze(40, 30, 20, new SplittableRandom(21));
+        int optimal = open.optimalPathLength();
+        SplittableRandom rand = new SplittableRandom(21);
+        for (int extra : new int[] {0, 10, 50, 200}) {
+            List<Cell> path = open.findPathOfLength(open.getStart(), open.getEnd(), optimal + extra, optimal + extra + 20, rand);
+            assertNotNull(path, "détour de " + extra);
+            int length = path.size() - 1;
+            assertTrue(length >= optimal + extra && length <= optimal + extra + 20, "longueur " + length);
+            assertEquals(open.getStart(), path.get(0));
+            assertEquals(open.getEnd(), path.get(length));
+            for (int i = 1; i < path.size(); i++) {
+                assertTrue(open.isDirectlyReachable(path.get(i - 1), path.get(i)));
+            }
+            assertEquals(path.size(), new java.util.HashSet<>(path).size()); // chemin simple
+        }
+
+        // Plage impossible : plus court que l'optimal
+        assertNull(open.findPathOfLength(open.getStart(), open.getEnd(), 0, optimal - 1, rand));
+
+        List<Cell> longer = open.findLongerPath(open.getStart(), open.getEnd());
+        assertNotNull(longer);
+        assertTrue(longer.size() - 1 > optimal);
+
+        // Sur un grand labyrinthe, la recherche reste bornée, qu'elle réussisse ou non
+        RandomMaze large = new RandomMaze(300, 300, 30, new SplittableRandom(22));
+        long before = System.nanoTime();
+        large.findPathOfLength(large.getStart(), large.getEnd(), large.optimalPathLength() + 2000, 90_000, rand);
+        assertTrue(System.nanoTime() - before < 5_000_000_000L);
+    }
+
+    @Test
+    public void testSearchWorkspaceReuse() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        RandomMaze maze = new RandomMaze(300, 300, 30, new SplittableRandom(3));
+        int length = maze.optimalPathLength(); // préchauffage : dimensionne l'espace de travail
+
+        // Après préchauffage, ni la longueur ni le chemin ne réallouent la file ou les parents
+        long before = threads.getThreadAllocatedBytes(threadId);
+        assertEquals(length, maze.optimalPathLength());
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(allocated < 4096, "octets alloués : " + allocated);
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        List<Cell> path = maze.findOptimalPath(maze.getStart(), maze.getEnd());
+        allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(length + 1, path.size());
+        assertTrue(allocated < 128L * path.size() + 4096, "octets alloués : " + allocated);
+
+        // Des parcours successifs entre d'autres cellules restent corrects
+        for (int i = 0; i < path.size(); i += 7) {
+            assertEquals(path.size() - i, maze.findOptimalPath(path.get(i), maze.getEnd()).size());
+        }
+    }
+
+    @Test
+    public void testUnionFindExactWallCount() {
+        RandomMaze hard = new RandomMaze(45, 45, 56);
+        assertEquals(Math.round(45 * 45 * 56 / 100f), hard.countWalls());
+        assertFalse(hard.findOptimalPath(hard.getStart(), hard.getEnd()).isEmpty());
+
+        RandomMaze dense = new RandomMaze(30, 30, 95);
+        List<Cell> path = dense.findOptimalPath(dense.getStart(), dense.getEnd());
+        assertFalse(path.isEmpty());
+        // Seules les cases du chemin restent ouvertes si le pourcentage ne laisse pas de marge
+        assertEquals(Math.max(30 * 30 - Math.round(30 * 30 * 95 / 100f), path.size()), dense.countFreeCells());
+    }
+
+    @Test
+    public void testRetryAlgorithm() {
+        RandomMaze retry = new RandomMaze(20, 20, 30, RandomMazeAlgorithm.RETRY);
+        assertFalse(retry.findOptimalPath(retry.getStart(), retry.getEnd()).isEmpty());
+    }
+
+    @Test
+    public void testGenerateFullDensity() {
+        RandomMaze full = new RandomMaze(50, 50, 100);
+        full.setRandom(new java.util.Random(42));
+        full.generate();
+        // Toutes les cases sauf l'entrée et la sortie sont des murs, puis une case est rouverte autour de chacune
+        assertTrue(full.countFreeCells() >= 2 && full.countFreeCells() <= 4);
+        assertFalse(full.isWall(full.getStart()));
+        assertFalse(full.isWall(full.getEnd()));
+    }
+
+    @Test
+    public void testLargeMaze() {
+        RandomMaze large = new RandomMaze(1000, 1000, 20);
+        assertNotNull(large.findOptimalPath(large.getStart(), large.getEnd()));
+    }
+
 
 
 
@@ -0,0 +1,102 @@
+package test.java.fr.univlille.iut.sae302.madmaze.model;
+
+import org.junit.jupiter.api.Test;
+
+import main.java.fr.univlille.iut.sae302.madmaze.model.Cell;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Direction;
+import main.java.fr.univlille.iut.sae302.madmaze.model.Maze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
+import main.java.fr.univlille.iut.sae302.madmaze.model.StormForecast;
+import main.java.fr.univlille.iut.sae302.madmaze.model.StormMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+class StormForecastTest {
+
+    /**
+     * Référence : parcours en largeur depuis l'entrée au temps -1, où l'on n'entre dans une cellule qu'avant la tempête.
+     */
+    private static boolean simulate(StormMode storm, int movesPerTick) {
+        Maze maze = storm.getMaze();
+        int w = maze.getWidth();
+        int[] time = new int[w * maze.getHeight()];
+        Arrays.fill(time, Integer.MAX_VALUE);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int startId = maze.getStart().getRow() * w + maze.getStart().getCol();
+        time[startId] = -1;
+        queue.add(startId);
+        while (!queue.isEmpty()) {
+            int id = queue.poll();
+            int row = id / w, col = id % w;
+            if (maze.isEnd(maze.getCell(row, col))) return true;
+            for (Direction d : Direction.allDirections()) {
+                if ((maze.openDirections(row, col) & d.mask()) == 0) continue;
+                int next = (row + d.getDy()) * w + col + d.getDx();
+                int arrival = storm.getArrivalTick(next / w, next % w);
+                int t = time[id] + 1;
+                if ((arrival < 0 || t < arrival * movesPerTick) && t < time[next]) {
+                    time[next] = t;
+                    queue.add(next);
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void testWinnableMatchesSimulation() {
+        int winnable = 0;
+        for (long seed = 0; seed < 30; seed++) {
+            for (MazeType type : MazeType.values()) {
+                StormMode storm = new StormMode();
+                storm.setMaze(type, 15, 12, type == MazeType.RANDOM ? 30 : 5, seed);
+                storm.prepareMaze();
+                storm.setBlockedByWalls(seed % 2 == 0);
+                for (int speed = 1; speed <= 3; speed++) {
+                    boolean expected = simulate(storm, speed);
+                    assertEquals(expected, StormForecast.isWinnable(storm, speed), type + " " + seed + " x" + speed);
+                    if (expected) winnable++;
+                }
+            }
+        }
+        assertTrue(winnable > 0);
+    }
+
+    @Test
+    void testVerdictFollowsStormAndPlayer() {
+        StormMode storm = new StormMode();
+        storm.setMaze(MazeType.PERFECT, 20, 20, 10, 6L);
+        storm.prepareMaze();
+        StormForecast forecast = new StormForecast(storm, 4);
+        Maze maze = storm.getMaze();
+        Cell end = maze.getEnd();
+        assertEquals(maze.optimalPathLength(), forecast.getPlayerArrival(end.getRow(), end.getCol()));
+        assertEquals(storm.getArrivalTick(end.getRow(), end.getCol()), forecast.getStormArrival(end.getRow(), end.getCol()));
+
+        // Rester sur place finit toujours par perdre
+        storm.startStorm();
+        int ticks = 0;
+        while (forecast.canStillWin()) {
+            storm.propagateStorm();
+            assertTrue(++ticks < 1000);
+        }
+        assertTrue(forecast.getSafetyMargin(maze.getStart().getRow(), maze.getStart().getCol()) < 0);
+
+        // Sur la sortie, la partie reste gagnable tant que la tempête ne l'a pas recouverte
+        forecast.setPlayerPosition(end.getRow(), end.getCol());
+        assertEquals(0, forecast.getPlayerArrival(end.getRow(), end.getCol()));
+        assertEquals(!storm.isSand(end.getRow(), end.getCol()), forecast.canStillWin());
+    }
+
+    @Test
+    void testInvalidSpeed() {
+        StormMode storm = new StormMode();
+        storm.setMaze(MazeType.RANDOM, 10, 10, 20, 1L);
+        storm.prepareMaze();
+        assertThrows(IllegalArgumentException.class, () -> new StormForecast(storm, 0));
+        assertThrows(IllegalStateException.class, () -> new StormForecast(new StormMode(), 1));
+    }
+}
@@ -0,0 +1,127 @@
+package test.java.fr.univlille.iut.sae302.madmaze.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import main.java.fr.univlille.iut.sae302.madmaze.model.Cell;
+import main.java.fr.univlille.iut.sae302.madmaze.model.MazeType;
+import main.java.fr.univlille.iut.sae302.madmaze.model.RandomMaze;
+import main.java.fr.univlille.iut.sae302.madmaze.model.StormMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StormModeTest {
+
+    private StormMode stormMode;
+
+    @BeforeEach
+    void setUp() {
+        stormMode = new StormMode();
+        stormMode.setMaze(MazeType.RANDOM, 20, 15, 30, 3L);
+        stormMode.prepareMaze();
+    }
+
+    @Test
+    void testStartAndPropagate() {
+        Cell start = stormMode.getMaze().getStart();
+        assertEquals(-1, stormMode.getTick());
+        assertEquals(0, stormMode.getSandCount());
+        assertFalse(stormMode.isLost(start));
+
+        stormMode.startStorm();
+        assertTrue(stormMode.isLost(start));
+        assertEquals(1, stormMode.getSandCount());
+
+        // Sans blocage, la tempête avance d'une case par tour dans toutes les directions, murs compris
+        stormMode.propagateStorm();
+        stormMode.propagateStorm();
+        for (int row = 0; row < 15; row++) {
+            for (int col = 0; col < 20; col++) {
+                int distance = Math.abs(row - start.getRow()) + Math.abs(col - start.getCol());
+                assertEquals(distance, stormMode.getArrivalTick(row, col));
+                assertEquals(distance <= 2, stormMode.isSand(row, col));
+            }
+        }
+
+        // Les cellules ensablées sont les premières de l'ordre d'arrivée, le front est le dernier anneau
+        int sand = stormMode.getSandCount();
+        for (int i = 0; i < sand; i++) {
+            int id = stormMode.getSandCell(i);
+            assertTrue(stormMode.isSand(id / 20, id % 20));
+        }
+        assertEquals(sand, stormMode.getSandCells().size());
+        assertEquals(sand - stormMode.getSandCount(1), stormMode.getStormFront().size());
+    }
+
+    @Test
+    void testBlockedByWalls() {
+        stormMode.setBlockedByWalls(true);
+        RandomMaze maze = (RandomMaze) stormMode.getMaze();
+        for (int row = 0; row < 15; row++) {
+            for (int col = 0; col < 20; col++) {
+                int expected = maze.isWall(row, col) ? -1 : maze.findOptimalPath(maze.getStart(), maze.getCell(row, col)).size() - 1;
+                assertEquals(expected, stormMode.getArrivalTick(row, col));
+            }
+        }
+        assertEquals(-1, stormMode.getArrivalTick(-1, 0));
+    }
+
+    @Test
+    void testReset() {
+        RandomMaze maze = (RandomMaze) stormMode.getMaze();
+        int arrival = stormMode.getArrivalTick(maze.getEnd().getRow(), maze.getEnd().getCol());
+        stormMode.startStorm();
+        stormMode.propagateStorm();
+
+        stormMode.reset();
+        assertSame(maze, stormMode.getMaze());
+        assertFalse(stormMode.isStormStarted());
+        assertEquals(-1, stormMode.getTick());
+        assertEquals(0, stormMode.getSandCount());
+        assertEquals(arrival, stormMode.getArrivalTick(maze.getEnd().getRow(), maze.getEnd().getCol()));
+
+        // Une propagation en retard, avant le redémarrage, ne fait pas avancer la tempête
+        stormMode.propagateStorm();
+        assertEquals(-1, stormMode.getTick());
+    }
+
+    @Test
+    void testLateTickAfterReset() {
+        // Le thread de propagation de la première tempête se réveille après la remise à zéro
+        int run = stormMode.startStorm();
+        stormMode.reset();
+        stormMode.propagateStorm(run);
+        assertEquals(-1, stormMode.getTick());
+        assertFalse(stormMode.isStormStarted());
+
+        // ... ou même après le démarrage d'une nouvelle tempête : seul le thread de celle-ci la fait avancer
+        int next = stormMode.startStorm();
+        assertNotEquals(run, next);
+        stormMode.propagateStorm(run);
+        assertEquals(0, stormMode.getTick());
+        stormMode.propagateStorm(next);
+        assertEquals(1, stormMode.getTick());
+    }
+
+    @Test
+    void testResetDuringPropagation() throws InterruptedException {
+        // Un thread de propagation qui tourne en continu ne doit jamais faire repartir une tempête remise à zéro
+        Thread propagation = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                stormMode.propagateStorm();
+            }
+        });
+        propagation.start();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                stormMode.startStorm();
+                stormMode.reset();
+                assertEquals(-1, stormMode.getTick());
+                assertFalse(stormMode.isStormStarted());
+            }
+        } finally {
+            propagation.interrupt();
+            propagation.join();
+        }
+    }
+}